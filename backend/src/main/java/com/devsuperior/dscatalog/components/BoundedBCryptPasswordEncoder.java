@@ -0,0 +1,132 @@
+package com.devsuperior.dscatalog.components;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.devsuperior.dscatalog.services.exceptions.ServiceUnavailableException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * BCryptPasswordEncoder que executa encode e matches em um pool próprio.
+ *
+ * Cada hash custa ~100ms de CPU. Rodando direto nas threads do Tomcat, uma
+ * rajada de /oauth/token ocupava o pool inteiro e travava os GETs do
+ * catálogo. Aqui no máximo threads + queue-capacity requisições ficam
+ * esperando por um hash; as demais recebem ServiceUnavailableException na
+ * hora (503), sem consumir CPU. A soma deve ficar bem abaixo de
+ * server.tomcat.threads.max.
+ */
+public class BoundedBCryptPasswordEncoder extends BCryptPasswordEncoder implements MeterBinder, DisposableBean {
+
+	private final ThreadPoolExecutor executor;
+	private final long timeoutNanos;
+
+	private volatile Timer encodeTimer;
+	private volatile Timer matchesTimer;
+	private volatile Counter rejected;
+
+	public BoundedBCryptPasswordEncoder(int threads, int queueCapacity, Duration timeout) {
+		executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), new BCryptThreadFactory(),
+				new ThreadPoolExecutor.AbortPolicy());
+		timeoutNanos = timeout.toNanos();
+	}
+
+	@Override
+	public String encode(CharSequence rawPassword) {
+		return submit(() -> timed(encodeTimer, () -> super.encode(rawPassword)));
+	}
+
+	@Override
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		return submit(() -> timed(matchesTimer, () -> super.matches(rawPassword, encodedPassword)));
+	}
+
+	private <T> T submit(Callable<T> task) {
+
+		Future<T> future;
+		try {
+			future = executor.submit(task);
+		}
+		catch (RejectedExecutionException e) {
+			if (rejected != null) {
+				rejected.increment();
+			}
+			throw new ServiceUnavailableException("Too many password checks in progress, try again later");
+		}
+
+		try {
+			return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+		}
+		catch (TimeoutException e) {
+			future.cancel(true);
+			throw new ServiceUnavailableException("Password check timed out, try again later");
+		}
+		catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new ServiceUnavailableException("Password check interrupted");
+		}
+		catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	// Mede só o hash, sem o tempo de espera na fila
+	private static <T> T timed(Timer timer, Callable<T> hash) throws Exception {
+		return timer == null ? hash.call() : timer.recordCallable(hash);
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("security.bcrypt.queue.size", executor, e -> e.getQueue().size())
+				.description("Hashes BCrypt aguardando uma thread livre")
+				.register(registry);
+		Gauge.builder("security.bcrypt.active", executor, ThreadPoolExecutor::getActiveCount)
+				.description("Hashes BCrypt em execução")
+				.register(registry);
+		rejected = Counter.builder("security.bcrypt.rejected")
+				.description("Hashes BCrypt recusados com a fila cheia")
+				.register(registry);
+		encodeTimer = Timer.builder("security.bcrypt.time").tag("operation", "encode").register(registry);
+		matchesTimer = Timer.builder("security.bcrypt.time").tag("operation", "matches").register(registry);
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdownNow();
+	}
+
+	private static final class BCryptThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, "bcrypt-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+}
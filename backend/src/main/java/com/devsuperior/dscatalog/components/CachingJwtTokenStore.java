@@ -0,0 +1,133 @@
+package com.devsuperior.dscatalog.components;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2RefreshToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * JwtTokenStore que guarda os tokens já verificados.
+ *
+ * Tanto o resource server quanto /oauth/check_token passam por
+ * DefaultTokenServices, que chama readAccessToken e depois readAuthentication:
+ * sem o cache, são duas decodificações, duas verificações do HMAC e dois
+ * parses do JSON por requisição. A chave é o SHA-256 do token e cada entrada
+ * expira junto com o exp do próprio token. Tokens inválidos não entram.
+ */
+public class CachingJwtTokenStore extends JwtTokenStore implements MeterBinder {
+
+	private final Cache<String, Entry> cache;
+
+	public CachingJwtTokenStore(JwtAccessTokenConverter converter, long maxSize, Duration maxTtl) {
+		super(converter);
+		cache = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfter(new TokenExpiry(maxTtl))
+				.recordStats()
+				.build();
+	}
+
+	@Override
+	public OAuth2AccessToken readAccessToken(String tokenValue) {
+		return entry(tokenValue).accessToken;
+	}
+
+	/**
+	 * Devolve uma cópia rasa: o OAuth2AuthenticationManager altera details e
+	 * authenticated no objeto recebido, que não pode ser compartilhado entre
+	 * requisições.
+	 */
+	@Override
+	public OAuth2Authentication readAuthentication(String token) {
+		OAuth2Authentication cached = entry(token).authentication;
+		return new OAuth2Authentication(cached.getOAuth2Request(), cached.getUserAuthentication());
+	}
+
+	/**
+	 * Fora do cache: a entrada começa por readAccessToken, que recusa refresh
+	 * tokens (e assim eles continuam sem valer como access token). A renovação
+	 * é rara, basta verificar a assinatura.
+	 */
+	@Override
+	public OAuth2Authentication readAuthenticationForRefreshToken(OAuth2RefreshToken token) {
+		return super.readAuthentication(token.getValue());
+	}
+
+	private Entry entry(String tokenValue) {
+		return cache.get(digest(tokenValue),
+				key -> new Entry(super.readAccessToken(tokenValue), super.readAuthentication(tokenValue)));
+	}
+
+	private static String digest(String tokenValue) {
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-256").digest(tokenValue.getBytes(StandardCharsets.UTF_8));
+			return Base64.getEncoder().encodeToString(hash);
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, cache, "jwtTokens");
+	}
+
+	private static final class Entry {
+
+		private final OAuth2AccessToken accessToken;
+		private final OAuth2Authentication authentication;
+
+		private Entry(OAuth2AccessToken accessToken, OAuth2Authentication authentication) {
+			this.accessToken = accessToken;
+			this.authentication = authentication;
+		}
+	}
+
+	// Vence no exp do token; sem exp, no TTL máximo
+	private static final class TokenExpiry implements Expiry<String, Entry> {
+
+		private final long maxTtlNanos;
+
+		private TokenExpiry(Duration maxTtl) {
+			this.maxTtlNanos = maxTtl.toNanos();
+		}
+
+		@Override
+		public long expireAfterCreate(String key, Entry value, long currentTime) {
+			Date expiration = value.accessToken.getExpiration();
+			if (expiration == null) {
+				return maxTtlNanos;
+			}
+			long remaining = Duration.ofMillis(expiration.getTime() - System.currentTimeMillis()).toNanos();
+			return Math.max(0, Math.min(remaining, maxTtlNanos));
+		}
+
+		@Override
+		public long expireAfterUpdate(String key, Entry value, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+
+		@Override
+		public long expireAfterRead(String key, Entry value, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+	}
+
+}
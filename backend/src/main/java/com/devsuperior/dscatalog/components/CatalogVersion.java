@@ -0,0 +1,72 @@
+package com.devsuperior.dscatalog.components;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.services.events.CategoryChangedEvent;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+
+/**
+ * ETags do catálogo para GET condicional (If-None-Match / 304).
+ * 
+ * Listagens: contadores de alterações em produtos e categorias, conferidos
+ * antes de qualquer consulta. Os contadores só avançam depois que os caches
+ * das listagens foram limpos (os listeners deles usam CACHE_ORDER), senão uma
+ * leitura no meio do caminho levaria o ETag novo com o conteúdo antigo. O
+ * epoch muda a cada subida, já que os contadores vivem só em memória.
+ * 
+ * Detalhe: versão do próprio registro (Product.version, Category.updatedAt);
+ * o ETag do produto inclui também as categorias, que vão no mesmo JSON.
+ */
+@Component
+public class CatalogVersion {
+
+	public static final int CACHE_ORDER = 0;
+
+	private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+	private final AtomicLong products = new AtomicLong();
+	private final AtomicLong categories = new AtomicLong();
+
+	@Order(Ordered.LOWEST_PRECEDENCE)
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductChanged(ProductChangedEvent event) {
+		products.incrementAndGet();
+	}
+
+	@Order(Ordered.LOWEST_PRECEDENCE)
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onCategoryChanged(CategoryChangedEvent event) {
+		categories.incrementAndGet();
+	}
+
+	// A listagem de produtos traz o nome das categorias
+	public String productsTag() {
+		return "\"p-" + epoch + "-" + products.get() + "-" + categories.get() + "\"";
+	}
+
+	public String categoriesTag() {
+		return "\"c-" + epoch + "-" + categories.get() + "\"";
+	}
+
+	public String productTag(ProductDTO dto) {
+		int categoriesHash = 0;
+		for (CategoryDTO category : dto.getCategories()) {
+			categoriesHash += Objects.hash(category.getId(), category.getName());
+		}
+		return "\"p" + dto.getId() + "-" + dto.getVersion() + "-" + Integer.toHexString(categoriesHash) + "\"";
+	}
+
+	public String categoryTag(CategoryDTO dto) {
+		long updatedAt = (dto.getUpdatedAt() == null) ? 0 : dto.getUpdatedAt().toEpochMilli();
+		return "\"c" + dto.getId() + "-" + Long.toString(updatedAt, 36) + "\"";
+	}
+
+}
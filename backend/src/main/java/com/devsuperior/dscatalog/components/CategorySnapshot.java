@@ -0,0 +1,97 @@
+package com.devsuperior.dscatalog.components;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.entities.Category;
+import com.devsuperior.dscatalog.repositories.CategoryRepository;
+import com.devsuperior.dscatalog.services.events.CategoryChangedEvent;
+
+/**
+ * Cópia em memória de todas as categorias. O conjunto é pequeno e quase não
+ * muda, então as leituras não precisam ir ao banco.
+ * 
+ * Cada versão é imutável e substituída por inteiro (copy-on-write) depois do
+ * commit de qualquer escrita em categoria.
+ */
+@Component
+public class CategorySnapshot {
+
+	@Autowired
+	private CategoryRepository repository;
+
+	private final AtomicLong versions = new AtomicLong();
+
+	private final AtomicReference<Version> current = new AtomicReference<>();
+
+	public Version get() {
+		Version version = current.get();
+		return (version != null) ? version : refresh();
+	}
+
+	@Order(CatalogVersion.CACHE_ORDER)
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onCategoryChanged(CategoryChangedEvent event) {
+		refresh();
+	}
+
+	// synchronized: uma recarga que começou depois não pode ser sobrescrita por
+	// uma que começou antes
+	public synchronized Version refresh() {
+		List<Category> categories = repository.findAll(Sort.by("id"));
+
+		Version version = new Version(versions.incrementAndGet(), categories);
+		current.set(version);
+		return version;
+	}
+
+	public static final class Version {
+
+		private final long number;
+		private final List<CategoryDTO> categories;
+		private final Map<Long, CategoryDTO> byId;
+
+		private Version(long number, List<Category> entities) {
+			Map<Long, CategoryDTO> map = new LinkedHashMap<>();
+			for (Category entity : entities) {
+				map.put(entity.getId(), new CategoryDTO(entity));
+			}
+			this.number = number;
+			this.byId = Collections.unmodifiableMap(map);
+			this.categories = Collections.unmodifiableList(new ArrayList<>(map.values()));
+		}
+
+		public long getNumber() {
+			return number;
+		}
+
+		/**
+		 * Categorias ordenadas por id. Os DTOs são compartilhados: quem precisar
+		 * alterar deve copiar.
+		 */
+		public List<CategoryDTO> getCategories() {
+			return categories;
+		}
+
+		public CategoryDTO findById(Long id) {
+			return byId.get(id);
+		}
+
+		public boolean contains(Long id) {
+			return byId.containsKey(id);
+		}
+	}
+
+}
@@ -0,0 +1,57 @@
+package com.devsuperior.dscatalog.components;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * PasswordEncoder dos segredos de client OAuth2.
+ *
+ * Com BCrypt, cada /oauth/token pagava dois hashes caros: o do segredo do
+ * client (basic auth) e o da senha do usuário. O segredo do client vem da
+ * configuração e nunca sai do servidor, então basta um HMAC-SHA256 com uma
+ * chave aleatória gerada na inicialização, comparado em tempo constante.
+ * Não serve para senhas de usuário.
+ */
+public class ClientSecretEncoder implements PasswordEncoder {
+
+	private static final String ALGORITHM = "HmacSHA256";
+
+	private final SecretKeySpec key;
+
+	public ClientSecretEncoder() {
+		byte[] bytes = new byte[32];
+		new SecureRandom().nextBytes(bytes);
+		key = new SecretKeySpec(bytes, ALGORITHM);
+	}
+
+	@Override
+	public String encode(CharSequence rawSecret) {
+		try {
+			Mac mac = Mac.getInstance(ALGORITHM);
+			mac.init(key);
+			byte[] hash = mac.doFinal(rawSecret.toString().getBytes(StandardCharsets.UTF_8));
+			return Base64.getEncoder().encodeToString(hash);
+		}
+		catch (GeneralSecurityException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public boolean matches(CharSequence rawSecret, String encodedSecret) {
+		if (rawSecret == null || encodedSecret == null) {
+			return false;
+		}
+		return MessageDigest.isEqual(encode(rawSecret).getBytes(StandardCharsets.US_ASCII),
+				encodedSecret.getBytes(StandardCharsets.US_ASCII));
+	}
+
+}
@@ -10,18 +10,18 @@ import org.springframework.security.oauth2.provider.OAuth2Authentication;
 import org.springframework.security.oauth2.provider.token.TokenEnhancer;
 import org.springframework.stereotype.Component;
 
-import com.devsuperior.dscatalog.entities.User;
-import com.devsuperior.dscatalog.repositories.UserRepository;
+import com.devsuperior.dscatalog.dto.UserPrincipalDTO;
+import com.devsuperior.dscatalog.services.UserService;
 
 @Component
 public class JwtTokenEnhancer implements TokenEnhancer {
 
 	@Autowired
-	private UserRepository userRepository;
+	private UserService userService;
 	
 	@Override
 	public OAuth2AccessToken enhance(OAuth2AccessToken accessToken, OAuth2Authentication authentication) {
-		User user = userRepository.findByEmail(authentication.getName());
+		UserPrincipalDTO user = principal(authentication);
 		
 		Map<String, Object> map = new HashMap<>();
 		map.put("userId", user.getId());
@@ -33,5 +33,16 @@ public class JwtTokenEnhancer implements TokenEnhancer {
 		
 		return token;
 	}
+	
+	// No password grant o principal é o usuário que acabou de ser autenticado,
+	// então não é preciso consultá-lo de novo. Nos demais casos vem do cache de
+	// usuários do UserService.
+	private UserPrincipalDTO principal(OAuth2Authentication authentication) {
+		Object principal = authentication.getPrincipal();
+		if (principal instanceof UserPrincipalDTO) {
+			return (UserPrincipalDTO) principal;
+		}
+		return (UserPrincipalDTO) userService.loadUserByUsername(authentication.getName());
+	}
 
 }
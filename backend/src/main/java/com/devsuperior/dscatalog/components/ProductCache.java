@@ -0,0 +1,81 @@
+package com.devsuperior.dscatalog.components;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.services.events.CategoryChangedEvent;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Cache read-through do detalhe de produto (GET /products/{id}).
+ * 
+ * O Caffeine usa W-TinyLFU para admissão e despejo: um produto só entra no
+ * lugar de outro se for acessado com mais frequência. Hits, misses e evictions
+ * ficam em /actuator/metrics/cache.* com a tag cache=products.
+ */
+@Component
+public class ProductCache implements MeterBinder {
+
+	private final Cache<Long, ProductDTO> cache;
+
+	public ProductCache(@Value("${product.cache.max-size:10000}") long maxSize,
+			@Value("${product.cache.ttl:10m}") Duration ttl) {
+		cache = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfterWrite(ttl)
+				.recordStats()
+				.build();
+	}
+
+	/**
+	 * Se o loader lançar exceção nada é guardado e a exceção é repassada.
+	 *
+	 * Devolve sempre uma cópia: o DTO é mutável e o valor guardado é
+	 * compartilhado entre todas as requisições.
+	 */
+	public ProductDTO get(Long id, Function<Long, ProductDTO> loader) {
+		return copy(cache.get(id, loader));
+	}
+
+	private static ProductDTO copy(ProductDTO dto) {
+		ProductDTO copy = new ProductDTO(dto.getId(), dto.getName(), dto.getDescription(), dto.getPrice(),
+				dto.getImgUrl(), dto.getDate());
+		copy.setVersion(dto.getVersion());
+		dto.getCategories().forEach(cat -> copy.getCategories().add(new CategoryDTO(cat.getId(), cat.getName())));
+		return copy;
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductChanged(ProductChangedEvent event) {
+		cache.invalidate(event.getId());
+	}
+
+	// O DTO do produto carrega o nome das categorias
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onCategoryChanged(CategoryChangedEvent event) {
+		cache.invalidateAll();
+	}
+
+	public CacheStats stats() {
+		return cache.stats();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, cache, "products");
+	}
+
+}
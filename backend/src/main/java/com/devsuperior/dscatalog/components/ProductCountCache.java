@@ -0,0 +1,87 @@
+package com.devsuperior.dscatalog.components;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+
+/**
+ * Cache do total de produtos por filtro (categoria + nome), para que o COUNT da
+ * listagem paginada rode uma vez por filtro e não uma vez por requisição.
+ * 
+ * Qualquer escrita em produto invalida todo o cache.
+ */
+@Component
+public class ProductCountCache {
+
+	@Value("${product.count-cache.max-size:10000}")
+	private int maxSize = 10000;
+
+	private final Map<String, Entry> counts = new ConcurrentHashMap<>();
+
+	private final AtomicLong generation = new AtomicLong();
+
+	public long get(Long categoryId, String name, LongSupplier loader) {
+		String key = key(categoryId, name);
+		long current = generation.get();
+
+		Entry entry = counts.get(key);
+		if (entry != null && entry.generation == current) {
+			return entry.count;
+		}
+
+		// A geração é lida antes da consulta: se alguma escrita terminar no meio do
+		// caminho, o valor gravado já nasce inválido.
+		long count = loader.getAsLong();
+
+		if (counts.size() >= maxSize) {
+			counts.clear();
+		}
+		counts.put(key, new Entry(count, current));
+
+		return count;
+	}
+
+	// Só consulta: null quando o total deste filtro ainda não está no cache
+	public Long getIfPresent(Long categoryId, String name) {
+		Entry entry = counts.get(key(categoryId, name));
+		return (entry != null && entry.generation == generation.get()) ? entry.count : null;
+	}
+
+	@Order(CatalogVersion.CACHE_ORDER)
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductChanged(ProductChangedEvent event) {
+		invalidateAll();
+	}
+
+	public void invalidateAll() {
+		generation.incrementAndGet();
+		counts.clear();
+	}
+
+	private static String key(Long categoryId, String name) {
+		// null e "" não são o mesmo filtro no LIKE
+		String normalized = (name == null) ? "\u0000" : name.toLowerCase(Locale.ROOT);
+		return categoryId + "|" + normalized;
+	}
+
+	private static final class Entry {
+
+		private final long count;
+		private final long generation;
+
+		private Entry(long count, long generation) {
+			this.count = count;
+			this.generation = generation;
+		}
+	}
+
+}
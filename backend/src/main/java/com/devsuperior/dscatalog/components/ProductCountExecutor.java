@@ -0,0 +1,189 @@
+package com.devsuperior.dscatalog.components;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.devsuperior.dscatalog.services.exceptions.ServiceUnavailableException;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Executa o COUNT da listagem paginada em paralelo com a consulta da página
+ * (product.parallel-count.enabled, desligado por padrão).
+ *
+ * Cada COUNT roda em uma thread do pool, em uma transação somente leitura
+ * própria e portanto em outra conexão: com o modo ligado, uma listagem sem o
+ * total em cache usa duas conexões do Hikari ao mesmo tempo. Por isso o COUNT
+ * só vai para o pool quando o Hikari tem conexão ociosa; sem ela, ou com a
+ * fila cheia, submit devolve null e quem chama segue no modo sequencial.
+ *
+ * Passado o prazo, await devolve null e a página vai sem o total. Interromper
+ * a thread não para um COUNT bloqueado no socket do JDBC; quem libera a
+ * conexão é o timeout da transação, que o Hibernate aplica em cada statement
+ * (setQueryTimeout, e o driver cancela a consulta no banco).
+ */
+@Component
+public class ProductCountExecutor implements MeterBinder, DisposableBean {
+
+	private final boolean enabled;
+	private final long timeoutNanos;
+	private final ThreadPoolExecutor executor;
+	private final TransactionTemplate transactionTemplate;
+	private final HikariDataSource hikari;
+
+	private volatile Counter rejected;
+	private volatile Counter skipped;
+	private volatile Counter timeouts;
+
+	public ProductCountExecutor(PlatformTransactionManager transactionManager, DataSource dataSource,
+			@Value("${product.parallel-count.enabled:false}") boolean enabled,
+			@Value("${product.parallel-count.threads:4}") int threads,
+			@Value("${product.parallel-count.queue-capacity:100}") int queueCapacity,
+			@Value("${product.parallel-count.timeout:2s}") Duration timeout) {
+		this.enabled = enabled;
+		this.timeoutNanos = timeout.toNanos();
+		executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), new CountThreadFactory(),
+				new ThreadPoolExecutor.AbortPolicy());
+		transactionTemplate = new TransactionTemplate(transactionManager);
+		transactionTemplate.setReadOnly(true);
+		// O Hibernate passa ao statement o tempo restante truncado em segundos e
+		// recusa a consulta quando ele dá zero: um segundo a mais deixa o COUNT
+		// com pelo menos o prazo inteiro, arredondado para cima
+		transactionTemplate.setTimeout((int) Math.max(1, (timeout.toMillis() + 999) / 1000) + 1);
+		hikari = hikari(dataSource);
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	// Prazo absoluto (System.nanoTime) para uma listagem que começa agora
+	public long deadline() {
+		return System.nanoTime() + timeoutNanos;
+	}
+
+	public Future<Long> submit(LongSupplier count) {
+		if (!hasIdleConnection()) {
+			if (skipped != null) {
+				skipped.increment();
+			}
+			return null;
+		}
+		try {
+			return executor.submit(() -> transactionTemplate.execute(status -> count.getAsLong()));
+		}
+		catch (RejectedExecutionException e) {
+			if (rejected != null) {
+				rejected.increment();
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Espera o total até o prazo. Se ele passar, devolve null: o COUNT não é
+	 * refeito, e o statement em andamento é cancelado pelo timeout da transação.
+	 */
+	public Long await(Future<Long> count, long deadline) {
+		try {
+			return count.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+		}
+		catch (TimeoutException e) {
+			count.cancel(true);
+			if (timeouts != null) {
+				timeouts.increment();
+			}
+			return null;
+		}
+		catch (InterruptedException e) {
+			count.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new ServiceUnavailableException("Product count interrupted");
+		}
+		catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("product.parallel-count.queue.size", executor, e -> e.getQueue().size())
+				.description("COUNTs aguardando uma thread livre")
+				.register(registry);
+		Gauge.builder("product.parallel-count.active", executor, ThreadPoolExecutor::getActiveCount)
+				.description("COUNTs em execução")
+				.register(registry);
+		rejected = Counter.builder("product.parallel-count.rejected")
+				.description("COUNTs executados em sequência com a fila cheia")
+				.register(registry);
+		skipped = Counter.builder("product.parallel-count.skipped")
+				.description("COUNTs executados em sequência sem conexão ociosa no Hikari")
+				.register(registry);
+		timeouts = Counter.builder("product.parallel-count.timeouts")
+				.description("Páginas respondidas sem o total, com o COUNT fora do prazo")
+				.register(registry);
+	}
+
+	// Fora do Hikari não há como saber; o prazo continua valendo
+	private boolean hasIdleConnection() {
+		if (hikari == null) {
+			return true;
+		}
+		HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+		return pool != null && pool.getIdleConnections() > 0;
+	}
+
+	private static HikariDataSource hikari(DataSource dataSource) {
+		try {
+			return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+		}
+		catch (SQLException e) {
+			return null;
+		}
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdownNow();
+	}
+
+	private static final class CountThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, "product-count-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+}
@@ -0,0 +1,84 @@
+package com.devsuperior.dscatalog.components;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Executa as importações de produtos fora da thread da requisição.
+ *
+ * No máximo product.import.threads importações gravam ao mesmo tempo (cada
+ * uma ocupa uma conexão do Hikari enquanto grava um bloco) e outras
+ * product.import.queue-capacity esperam na fila. Com a fila cheia, submit
+ * devolve false e a importação é recusada com 503.
+ */
+@Component
+public class ProductImportExecutor implements MeterBinder, DisposableBean {
+
+	private final ThreadPoolExecutor executor;
+
+	private volatile Counter rejected;
+
+	public ProductImportExecutor(@Value("${product.import.threads:2}") int threads,
+			@Value("${product.import.queue-capacity:10}") int queueCapacity) {
+		executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), new ImportThreadFactory(),
+				new ThreadPoolExecutor.AbortPolicy());
+	}
+
+	public boolean submit(Runnable task) {
+		try {
+			executor.execute(task);
+			return true;
+		}
+		catch (RejectedExecutionException e) {
+			if (rejected != null) {
+				rejected.increment();
+			}
+			return false;
+		}
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("product.import.queue.size", executor, e -> e.getQueue().size())
+				.description("Importações aguardando uma thread livre")
+				.register(registry);
+		Gauge.builder("product.import.active", executor, ThreadPoolExecutor::getActiveCount)
+				.description("Importações em execução")
+				.register(registry);
+		rejected = Counter.builder("product.import.rejected")
+				.description("Importações recusadas com a fila cheia")
+				.register(registry);
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdownNow();
+	}
+
+	private static final class ImportThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, "product-import-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+}
@@ -0,0 +1,186 @@
+package com.devsuperior.dscatalog.components;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.devsuperior.dscatalog.dto.ProductImportJobDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Registro das importações de produtos (POST /products/import).
+ *
+ * Guarda somente contadores por job; os erros vão para um arquivo temporário
+ * em CSV (record,message), baixado em GET /products/import/{id}/errors. Assim
+ * a memória não cresce com o tamanho do arquivo importado.
+ *
+ * Jobs em andamento ficam em um mapa à parte, fora do limite e da expiração:
+ * quantos existem é limitado pelo ProductImportExecutor. Ao terminar, o job
+ * passa para o cache, de onde os mais antigos são descartados junto com o
+ * arquivo de erros.
+ */
+@Component
+public class ProductImportJobs {
+
+	public static final String RUNNING = "RUNNING";
+	public static final String COMPLETED = "COMPLETED";
+	public static final String FAILED = "FAILED";
+
+	private final Map<String, Job> running = new ConcurrentHashMap<>();
+	private final Cache<String, Job> jobs;
+
+	public ProductImportJobs(@Value("${product.import.max-jobs:100}") long maxJobs,
+			@Value("${product.import.job-ttl:24h}") Duration ttl) {
+		jobs = Caffeine.newBuilder()
+				.maximumSize(maxJobs)
+				.expireAfterWrite(ttl)
+				.<String, Job>removalListener((id, job, cause) -> job.deleteErrors())
+				.build();
+	}
+
+	public Job start(String format) {
+		Job job = new Job(this, UUID.randomUUID().toString(), format);
+		running.put(job.id, job);
+		return job;
+	}
+
+	public Job find(String id) {
+		Job job = running.get(id);
+		return (job != null) ? job : jobs.getIfPresent(id);
+	}
+
+	// Mais recentes primeiro
+	public List<ProductImportJobDTO> findAll() {
+		return Stream.concat(running.values().stream(), jobs.asMap().values().stream())
+				.distinct()
+				.sorted(Comparator.comparing((Job job) -> job.startedAt).reversed())
+				.map(Job::toDTO)
+				.collect(Collectors.toList());
+	}
+
+	// Entra no cache antes de sair do mapa, para find nunca deixar de achar o job
+	private void finished(Job job) {
+		jobs.put(job.id, job);
+		running.remove(job.id);
+	}
+
+	public static final class Job {
+
+		private final ProductImportJobs owner;
+		private final String id;
+		private final String format;
+		private final Instant startedAt = Instant.now();
+		private final AtomicLong succeeded = new AtomicLong();
+		private final AtomicLong failed = new AtomicLong();
+		private final Path errors;
+		private final BufferedWriter writer;
+
+		private volatile String status = RUNNING;
+		private volatile Instant finishedAt;
+		private volatile String message;
+
+		private Job(ProductImportJobs owner, String id, String format) {
+			this.owner = owner;
+			this.id = id;
+			this.format = format;
+			try {
+				errors = Files.createTempFile("product-import-" + id, ".csv");
+				writer = Files.newBufferedWriter(errors, StandardCharsets.UTF_8);
+				writer.write("record,message\n");
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		public String getId() {
+			return id;
+		}
+
+		public Path getErrors() {
+			return errors;
+		}
+
+		public void succeeded(long count) {
+			succeeded.addAndGet(count);
+		}
+
+		public synchronized void error(long record, String message) {
+			failed.incrementAndGet();
+			try {
+				writer.write(record + ",\"" + message.replace("\"", "\"\"") + "\"\n");
+			}
+			catch (IOException e) {
+				// Arquivo já descartado: o contador continua valendo
+			}
+		}
+
+		// Torna visíveis para download os erros gravados até aqui
+		public synchronized void flush() {
+			try {
+				writer.flush();
+			}
+			catch (IOException e) {
+				// idem
+			}
+		}
+
+		public void complete() {
+			finish(COMPLETED, null);
+			owner.finished(this);
+		}
+
+		public void fail(String message) {
+			finish(FAILED, message);
+			owner.finished(this);
+		}
+
+		// O registro só é avisado depois, fora do monitor: o put no cache pode
+		// descartar outro job e chamar o deleteErrors dele
+		private synchronized void finish(String status, String message) {
+			try {
+				writer.close();
+			}
+			catch (IOException e) {
+				// idem
+			}
+			this.message = message;
+			this.finishedAt = Instant.now();
+			this.status = status;
+		}
+
+		private synchronized void deleteErrors() {
+			try {
+				writer.close();
+				Files.deleteIfExists(errors);
+			}
+			catch (IOException e) {
+				// Arquivo temporário: o sistema operacional limpa depois
+			}
+		}
+
+		public ProductImportJobDTO toDTO() {
+			long ok = succeeded.get();
+			long ko = failed.get();
+			return new ProductImportJobDTO(id, format, status, startedAt, finishedAt, ok + ko, ok, ko, message);
+		}
+	}
+
+}
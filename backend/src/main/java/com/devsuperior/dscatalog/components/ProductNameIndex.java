@@ -0,0 +1,187 @@
+package com.devsuperior.dscatalog.components;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.devsuperior.dscatalog.repositories.ProductNameProjection;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+
+/**
+ * Índice invertido de trigramas sobre o nome dos produtos.
+ * 
+ * O filtro LIKE '%nome%' não usa índice no banco, então a busca por nome é
+ * resolvida aqui para um conjunto de ids candidatos antes da consulta.
+ */
+@Component
+public class ProductNameIndex {
+
+	private static Logger logger = LoggerFactory.getLogger(ProductNameIndex.class);
+
+	private static final int GRAM_SIZE = 3;
+
+	@Autowired
+	private ProductRepository repository;
+
+	@Value("${product.search.max-candidates:1000}")
+	private int maxCandidates = 1000;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Map<String, Set<Long>> postings = new HashMap<>();
+	private final Map<Long, String> names = new HashMap<>();
+
+	private volatile boolean ready;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		// O lock de escrita fica preso durante a leitura para que nenhuma alteração
+		// publicada enquanto o índice é montado seja perdida.
+		lock.writeLock().lock();
+		try {
+			postings.clear();
+			names.clear();
+
+			List<ProductNameProjection> products = repository.findAllNames();
+			for (ProductNameProjection p : products) {
+				addInternal(p.getId(), p.getName());
+			}
+
+			ready = true;
+			logger.info("Product name index built with {} products and {} trigrams", names.size(), postings.size());
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Order(CatalogVersion.CACHE_ORDER)
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductChanged(ProductChangedEvent event) {
+		if (event.isRemoved()) {
+			remove(event.getId());
+		} else {
+			put(event.getId(), event.getName());
+		}
+	}
+
+	public void put(Long id, String name) {
+		lock.writeLock().lock();
+		try {
+			removeInternal(id);
+			addInternal(id, name);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void remove(Long id) {
+		lock.writeLock().lock();
+		try {
+			removeInternal(id);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Retorna os ids dos produtos cujo nome contém o texto informado, ou null
+	 * quando o índice não consegue ajudar (índice ainda não montado, texto menor
+	 * que um trigrama ou resultado largo demais para virar um IN).
+	 */
+	public Set<Long> search(String name) {
+		if (!ready || name == null) {
+			return null;
+		}
+
+		String term = normalize(name);
+		if (term.length() < GRAM_SIZE) {
+			return null;
+		}
+
+		lock.readLock().lock();
+		try {
+			Set<Long> smallest = null;
+			for (String gram : grams(term)) {
+				Set<Long> ids = postings.get(gram);
+				if (ids == null) {
+					return Collections.emptySet();
+				}
+				if (smallest == null || ids.size() < smallest.size()) {
+					smallest = ids;
+				}
+			}
+
+			// Os trigramas só dão candidatos; a verificação final garante a mesma
+			// semântica do LIKE.
+			Set<Long> result = new HashSet<>();
+			for (Long id : smallest) {
+				if (names.get(id).contains(term)) {
+					result.add(id);
+					if (result.size() > maxCandidates) {
+						return null;
+					}
+				}
+			}
+			return result;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private void addInternal(Long id, String name) {
+		if (id == null || name == null) {
+			return;
+		}
+		String normalized = normalize(name);
+		names.put(id, normalized);
+		for (String gram : grams(normalized)) {
+			postings.computeIfAbsent(gram, k -> new HashSet<>()).add(id);
+		}
+	}
+
+	private void removeInternal(Long id) {
+		String old = names.remove(id);
+		if (old == null) {
+			return;
+		}
+		for (String gram : grams(old)) {
+			Set<Long> ids = postings.get(gram);
+			if (ids != null) {
+				ids.remove(id);
+				if (ids.isEmpty()) {
+					postings.remove(gram);
+				}
+			}
+		}
+	}
+
+	private static Set<String> grams(String text) {
+		Set<String> result = new HashSet<>();
+		for (int i = 0; i + GRAM_SIZE <= text.length(); i++) {
+			result.add(text.substring(i, i + GRAM_SIZE));
+		}
+		return result;
+	}
+
+	private static String normalize(String text) {
+		return text.toLowerCase(Locale.ROOT);
+	}
+
+}
@@ -0,0 +1,284 @@
+package com.devsuperior.dscatalog.components;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import com.devsuperior.dscatalog.dto.UnknownTotalPage;
+import com.devsuperior.dscatalog.services.events.CategoryChangedEvent;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Respostas prontas (bytes do JSON, puro e em gzip) das primeiras páginas de
+ * GET /products sem filtro de nome, fora do heap.
+ *
+ * As entradas são gravadas em sequência dentro de slabs (ByteBuffer direto de
+ * tamanho fixo). Com o limite atingido, o slab mais antigo sai inteiro, junto
+ * com as suas entradas. Qualquer escrita em produto ou categoria descarta tudo.
+ *
+ * Os slabs são alocados uma vez, no máximo capacity / slab-size, e depois
+ * reaproveitados. Cada resposta em andamento conta como leitor do seu slab: um
+ * slab descartado só volta a receber entradas quando o último leitor termina,
+ * então quem está escrevendo uma resposta não vê os bytes mudarem. Sem slab
+ * livre, a página é respondida sem ser guardada.
+ */
+@Component
+public class ProductPageCache implements MeterBinder {
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private final int slabSize;
+	private final int maxSlabs;
+	private final int maxPage;
+
+	private final Map<String, Entry> entries = new HashMap<>();
+	private final Deque<Slab> slabs = new ArrayDeque<>();
+	private final Deque<Slab> free = new ArrayDeque<>();
+	private int allocated;
+	private final AtomicLong generation = new AtomicLong();
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	public ProductPageCache(@Value("${product.page-cache.capacity:64MB}") DataSize capacity,
+			@Value("${product.page-cache.slab-size:1MB}") DataSize slabSize,
+			@Value("${product.page-cache.max-page:3}") int maxPage) {
+		this.slabSize = (int) slabSize.toBytes();
+		this.maxSlabs = (int) Math.max(0, capacity.toBytes() / slabSize.toBytes());
+		this.maxPage = maxPage;
+	}
+
+	/**
+	 * Só as páginas mais acessadas: sem nome e entre as primeiras max-page.
+	 */
+	public boolean accepts(String name, Pageable pageable) {
+		return maxSlabs > 0 && name.isEmpty() && pageable.getPageNumber() < maxPage;
+	}
+
+	/**
+	 * Escreve a página na resposta, do cache ou serializando o resultado do
+	 * loader (que então é guardado).
+	 */
+	public void write(String view, Long categoryId, Pageable pageable, boolean gzip, HttpServletResponse response,
+			Supplier<Object> loader) throws IOException {
+
+		String key = view + "|" + categoryId + "|" + pageable.getPageNumber() + "|" + pageable.getPageSize() + "|"
+				+ pageable.getSort();
+
+		Entry entry = acquire(key);
+		if (entry != null) {
+			hits.incrementAndGet();
+		}
+		else {
+			misses.incrementAndGet();
+			// Lida antes da consulta: uma escrita no meio do caminho invalida o resultado
+			long current = generation.get();
+			Object page = loader.get();
+			byte[] json = objectMapper.writeValueAsBytes(page);
+			// Sem o total (COUNT fora do prazo): responde, mas não guarda
+			entry = (page instanceof UnknownTotalPage)
+					? new Entry(null, ByteBuffer.wrap(json), ByteBuffer.wrap(gzip(json)))
+					: put(key, json, gzip(json), current);
+		}
+
+		try {
+			ByteBuffer body = gzip ? entry.gzip.duplicate() : entry.json.duplicate();
+
+			response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+			response.setContentLength(body.remaining());
+			response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+			if (gzip) {
+				response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+			}
+			Channels.newChannel(response.getOutputStream()).write(body);
+		}
+		finally {
+			release(entry);
+		}
+	}
+
+	@Order(CatalogVersion.CACHE_ORDER)
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductChanged(ProductChangedEvent event) {
+		invalidateAll();
+	}
+
+	// A página leva o nome das categorias de cada produto
+	@Order(CatalogVersion.CACHE_ORDER)
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onCategoryChanged(CategoryChangedEvent event) {
+		invalidateAll();
+	}
+
+	public synchronized void invalidateAll() {
+		generation.incrementAndGet();
+		entries.clear();
+		while (!slabs.isEmpty()) {
+			retire(slabs.removeFirst());
+		}
+	}
+
+	// A entrada devolvida conta como leitora do seu slab até o release
+	private synchronized Entry acquire(String key) {
+		Entry entry = entries.get(key);
+		if (entry != null) {
+			entry.slab.readers++;
+		}
+		return entry;
+	}
+
+	private synchronized void release(Entry entry) {
+		Slab slab = entry.slab;
+		if (slab != null && --slab.readers == 0 && slab.retired) {
+			recycle(slab);
+		}
+	}
+
+	// Fora do cache; volta para os livres agora ou quando o último leitor terminar
+	private void retire(Slab slab) {
+		slab.retired = true;
+		if (slab.readers == 0) {
+			recycle(slab);
+		}
+	}
+
+	private void recycle(Slab slab) {
+		slab.retired = false;
+		slab.buffer.clear();
+		free.addLast(slab);
+	}
+
+	private Slab nextSlab() {
+		if (free.isEmpty() && allocated < maxSlabs) {
+			allocated++;
+			return new Slab(ByteBuffer.allocateDirect(slabSize));
+		}
+		if (free.isEmpty() && !slabs.isEmpty()) {
+			Slab oldest = slabs.removeFirst();
+			entries.values().removeIf(e -> e.slab == oldest);
+			retire(oldest);
+		}
+		return free.pollFirst();
+	}
+
+	private synchronized Entry put(String key, byte[] json, byte[] gzip, long expectedGeneration) {
+
+		if (generation.get() != expectedGeneration || json.length + gzip.length > slabSize) {
+			// Não guarda, mas responde com o que foi serializado
+			return new Entry(null, ByteBuffer.wrap(json), ByteBuffer.wrap(gzip));
+		}
+
+		Slab slab = slabs.peekLast();
+		if (slab == null || slab.buffer.remaining() < json.length + gzip.length) {
+			slab = nextSlab();
+			if (slab == null) {
+				// Todos os slabs ainda estão sendo lidos por respostas em andamento
+				return new Entry(null, ByteBuffer.wrap(json), ByteBuffer.wrap(gzip));
+			}
+			slabs.addLast(slab);
+		}
+
+		Entry entry = new Entry(slab, slab.append(json), slab.append(gzip));
+		entries.put(key, entry);
+		slab.readers++;
+		return entry;
+	}
+
+	private static byte[] gzip(byte[] json) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(json);
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return out.toByteArray();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("product.page-cache.entries", this, cache -> cache.size()).register(registry);
+		Gauge.builder("product.page-cache.slabs", this, cache -> cache.slabCount()).register(registry);
+		Gauge.builder("product.page-cache.direct-memory", this, cache -> cache.directMemory())
+				.baseUnit("bytes")
+				.description("Memória direta alocada pelos slabs, em uso ou livres")
+				.register(registry);
+		FunctionCounter.builder("product.page-cache.requests", hits, AtomicLong::get).tag("result", "hit").register(registry);
+		FunctionCounter.builder("product.page-cache.requests", misses, AtomicLong::get).tag("result", "miss").register(registry);
+	}
+
+	private synchronized int size() {
+		return entries.size();
+	}
+
+	private synchronized int slabCount() {
+		return slabs.size();
+	}
+
+	synchronized long directMemory() {
+		return (long) allocated * slabSize;
+	}
+
+	private static final class Slab {
+
+		private final ByteBuffer buffer;
+
+		// Protegidos pelo monitor do ProductPageCache
+		private int readers;
+		private boolean retired;
+
+		private Slab(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		// Copia os bytes para o fim do slab e devolve uma fatia só de leitura
+		private ByteBuffer append(byte[] bytes) {
+			int start = buffer.position();
+			buffer.put(bytes);
+			ByteBuffer slice = buffer.duplicate();
+			slice.position(start).limit(start + bytes.length);
+			return slice.slice().asReadOnlyBuffer();
+		}
+	}
+
+	private static final class Entry {
+
+		private final Slab slab;
+		private final ByteBuffer json;
+		private final ByteBuffer gzip;
+
+		private Entry(Slab slab, ByteBuffer json, ByteBuffer gzip) {
+			this.slab = slab;
+			this.json = json;
+			this.gzip = gzip;
+		}
+	}
+
+}
@@ -0,0 +1,50 @@
+package com.devsuperior.dscatalog.components;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Publica a taxa de acerto de cada região do cache de segundo nível do
+ * Hibernate em /actuator/metrics/hibernate.cache.hit.ratio?tag=region:category
+ * 
+ * Depende de hibernate.generate_statistics=true (HIBERNATE_STATISTICS=true,
+ * ligado só no perfil test por padrão); com as estatísticas desligadas nenhuma
+ * métrica é registrada.
+ */
+@Component
+public class SecondLevelCacheMetrics implements MeterBinder {
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		if (!statistics.isStatisticsEnabled()) {
+			return;
+		}
+		for (String region : statistics.getSecondLevelCacheRegionNames()) {
+			Gauge.builder("hibernate.cache.hit.ratio", statistics, s -> hitRatio(s.getDomainDataRegionStatistics(region)))
+					.tag("region", region)
+					.description("Fração das leituras da região atendidas pelo cache de segundo nível")
+					.register(registry);
+		}
+	}
+
+	// NaN enquanto a região não tiver recebido nenhuma leitura
+	static double hitRatio(CacheRegionStatistics region) {
+		long hits = region.getHitCount();
+		long total = hits + region.getMissCount();
+		return total == 0 ? Double.NaN : (double) hits / total;
+	}
+
+}
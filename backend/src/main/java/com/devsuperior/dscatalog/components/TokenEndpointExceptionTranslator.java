@@ -0,0 +1,58 @@
+package com.devsuperior.dscatalog.components;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.oauth2.common.exceptions.OAuth2Exception;
+import org.springframework.security.oauth2.provider.error.DefaultWebResponseExceptionTranslator;
+import org.springframework.security.web.util.ThrowableAnalyzer;
+import org.springframework.stereotype.Component;
+
+import com.devsuperior.dscatalog.services.exceptions.ServiceUnavailableException;
+
+/**
+ * Erros do /oauth/token. O TokenEndpoint não passa pelo
+ * ResourceExceptionHandler e, sem isto, a fila cheia do BCrypt virava 500
+ * server_error. Devolve 503 temporarily_unavailable (RFC 6749) com
+ * Retry-After; o resto segue o tratamento padrão.
+ */
+@Component
+public class TokenEndpointExceptionTranslator extends DefaultWebResponseExceptionTranslator {
+
+	private final ThrowableAnalyzer throwableAnalyzer = new ThrowableAnalyzer();
+
+	@Override
+	public ResponseEntity<OAuth2Exception> translate(Exception e) throws Exception {
+
+		Throwable[] causeChain = throwableAnalyzer.determineCauseChain(e);
+		Throwable unavailable = throwableAnalyzer.getFirstThrowableOfType(ServiceUnavailableException.class, causeChain);
+		if (unavailable != null) {
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+					.header(HttpHeaders.RETRY_AFTER, "1")
+					.header(HttpHeaders.CACHE_CONTROL, "no-store")
+					.header(HttpHeaders.PRAGMA, "no-cache")
+					.body(new TemporarilyUnavailableException(unavailable.getMessage()));
+		}
+		return super.translate(e);
+	}
+
+	public static class TemporarilyUnavailableException extends OAuth2Exception {
+
+		private static final long serialVersionUID = 1L;
+
+		public TemporarilyUnavailableException(String msg) {
+			super(msg);
+		}
+
+		@Override
+		public String getOAuth2ErrorCode() {
+			return "temporarily_unavailable";
+		}
+
+		@Override
+		public int getHttpErrorCode() {
+			return HttpStatus.SERVICE_UNAVAILABLE.value();
+		}
+	}
+
+}
@@ -0,0 +1,226 @@
+package com.devsuperior.dscatalog.components;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.devsuperior.dscatalog.repositories.UserRepository;
+import com.devsuperior.dscatalog.services.events.UserChangedEvent;
+
+/**
+ * Filtro de Bloom com os e-mails cadastrados.
+ *
+ * Os validadores de cadastro só consultam o banco quando o filtro diz que o
+ * e-mail talvez exista; um e-mail novo quase sempre é descartado aqui. Um
+ * falso negativo não pode acontecer, por isso o UserService marca o e-mail
+ * antes de gravar.
+ *
+ * Bits não são apagados: e-mails alterados ou removidos viram falsos
+ * positivos. Depois de rebuild-threshold alterações ou remoções o filtro é
+ * refeito do banco em um array novo, que substitui o atual; a recarga roda
+ * em uma thread própria, fora do listener que fechou a transação. Durante a
+ * recarga, put grava nos dois. Os e-mails marcados nos últimos
+ * in-flight-window são gravados de novo no array novo: podem ser de
+ * transações ainda sem commit quando os e-mails foram lidos.
+ */
+@Component
+public class UserEmailFilter implements DisposableBean {
+
+	private static Logger logger = LoggerFactory.getLogger(UserEmailFilter.class);
+
+	@Autowired
+	private UserRepository repository;
+
+	private final int size;
+	private final int hashes;
+	private final long rebuildThreshold;
+	private final long inFlightWindowNanos;
+
+	private final AtomicLong changes = new AtomicLong();
+	private final AtomicBoolean rebuilding = new AtomicBoolean();
+	private final Queue<Marked> recent = new ConcurrentLinkedQueue<>();
+
+	// Uma recarga por vez e no máximo uma esperando; as demais pedidas são descartadas
+	private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+			new ArrayBlockingQueue<>(1), UserEmailFilter::newThread, new ThreadPoolExecutor.DiscardPolicy());
+
+	private volatile AtomicLongArray bits;
+	private volatile AtomicLongArray next;
+	private volatile boolean ready;
+
+	public UserEmailFilter(@Value("${user.email-filter.expected-emails:100000}") int expectedEmails,
+			@Value("${user.email-filter.false-positive-rate:0.01}") double falsePositiveRate,
+			@Value("${user.email-filter.rebuild-threshold:1000}") long rebuildThreshold,
+			@Value("${user.email-filter.in-flight-window:5m}") Duration inFlightWindow) {
+		// m = -n ln(p) / ln(2)^2 e k = m/n ln(2)
+		long m = (long) Math.ceil(-expectedEmails * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+		size = (int) Math.max(64, Math.min(m, Integer.MAX_VALUE - 63));
+		hashes = Math.max(1, (int) Math.round((double) size / expectedEmails * Math.log(2)));
+		this.rebuildThreshold = rebuildThreshold;
+		this.inFlightWindowNanos = inFlightWindow.toNanos();
+		bits = new AtomicLongArray((size + 63) / 64);
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		if (!rebuilding.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			AtomicLongArray fresh = new AtomicLongArray(bits.length());
+			next = fresh;
+			changes.set(0);
+
+			List<String> emails = repository.findAllEmails();
+			for (String email : emails) {
+				put(fresh, email);
+			}
+			long since = System.nanoTime() - inFlightWindowNanos;
+			for (Marked marked : recent) {
+				if (marked.at - since >= 0) {
+					put(fresh, marked.email);
+				}
+			}
+
+			bits = fresh;
+			ready = true;
+			logger.info("User e-mail filter built with {} e-mails ({} bits, {} hashes)", emails.size(), size, hashes);
+		}
+		finally {
+			next = null;
+			rebuilding.set(false);
+		}
+	}
+
+	// O e-mail antigo (alteração) ou removido continua no filtro até a próxima recarga
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onUserChanged(UserChangedEvent event) {
+		if (changes.incrementAndGet() >= rebuildThreshold && !rebuilding.get()) {
+			executor.execute(this::rebuildInBackground);
+		}
+	}
+
+	private void rebuildInBackground() {
+		try {
+			rebuild();
+		}
+		catch (RuntimeException e) {
+			// O filtro atual continua valendo: só tem mais falsos positivos
+			logger.warn("User e-mail filter rebuild failed: {}", e.getMessage());
+		}
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdownNow();
+	}
+
+	public void put(String email) {
+		if (email == null) {
+			return;
+		}
+		long now = System.nanoTime();
+		recent.add(new Marked(email, now));
+		for (Marked head; (head = recent.peek()) != null && now - head.at > inFlightWindowNanos; ) {
+			recent.poll();
+		}
+
+		// Primeiro o array em construção: se ele já tiver sido trocado, bits é o novo
+		AtomicLongArray building = next;
+		if (building != null) {
+			put(building, email);
+		}
+		put(bits, email);
+	}
+
+	/**
+	 * false garante que o e-mail não está cadastrado; true exige a consulta.
+	 * Antes da carga inicial sempre devolve true.
+	 */
+	public boolean mightContain(String email) {
+		if (!ready || email == null) {
+			return true;
+		}
+		AtomicLongArray current = bits;
+		long hash = hash(email);
+		for (int i = 0; i < hashes; i++) {
+			int bit = index(hash, i);
+			if ((current.get(bit >>> 6) & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void put(AtomicLongArray target, String email) {
+		long hash = hash(email);
+		for (int i = 0; i < hashes; i++) {
+			int bit = index(hash, i);
+			long mask = 1L << bit;
+			int word = bit >>> 6;
+			long current;
+			while (((current = target.get(word)) & mask) == 0 && !target.compareAndSet(word, current, current | mask)) {
+				// outra thread alterou a palavra; tenta de novo
+			}
+		}
+	}
+
+	// Hashing duplo (Kirsch-Mitzenmacher) sobre as duas metades de um FNV-1a de 64 bits
+	private int index(long hash, int i) {
+		int h1 = (int) hash;
+		int h2 = (int) (hash >>> 32);
+		int combined = h1 + i * h2;
+		return Math.floorMod(combined, size);
+	}
+
+	private static long hash(String email) {
+		long hash = 0xcbf29ce484222325L;
+		for (byte b : email.getBytes(StandardCharsets.UTF_8)) {
+			hash ^= b;
+			hash *= 0x100000001b3L;
+		}
+		// Mistura final (murmur3 fmix64): o FNV espalha mal os bits altos
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+
+	private static Thread newThread(Runnable r) {
+		Thread thread = new Thread(r, "user-email-filter-rebuild");
+		thread.setDaemon(true);
+		return thread;
+	}
+
+	private static final class Marked {
+
+		private final String email;
+		private final long at;
+
+		private Marked(String email, long at) {
+			this.email = email;
+			this.at = at;
+		}
+	}
+
+}
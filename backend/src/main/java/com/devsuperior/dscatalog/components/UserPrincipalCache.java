@@ -0,0 +1,75 @@
+package com.devsuperior.dscatalog.components;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.devsuperior.dscatalog.dto.UserPrincipalDTO;
+import com.devsuperior.dscatalog.services.events.UserChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Cache dos usuários carregados no login (password grant), por e-mail.
+ * 
+ * E-mails inexistentes não são guardados. A alteração ou remoção de um
+ * usuário invalida a entrada dele, pelo e-mail anterior e pelo novo; o TTL
+ * limita o tempo em que uma mudança feita direto no banco fica invisível.
+ */
+@Component
+public class UserPrincipalCache implements MeterBinder {
+
+	private final Cache<String, UserPrincipalDTO> cache;
+
+	private final AtomicLong generation = new AtomicLong();
+
+	public UserPrincipalCache(@Value("${user.principal-cache.max-size:10000}") long maxSize,
+			@Value("${user.principal-cache.ttl:5m}") Duration ttl) {
+		cache = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfterWrite(ttl)
+				.recordStats()
+				.build();
+	}
+
+	/**
+	 * O loader pode devolver null (usuário não encontrado): nada é guardado.
+	 */
+	public UserPrincipalDTO get(String username, Function<String, UserPrincipalDTO> loader) {
+		UserPrincipalDTO principal = cache.getIfPresent(username);
+		if (principal != null) {
+			return principal;
+		}
+
+		// A geração é lida antes da consulta: se algum usuário mudar no meio do
+		// caminho, o que foi lido pode ser anterior à mudança e não é guardado.
+		long current = generation.get();
+		UserPrincipalDTO loaded = loader.apply(username);
+		if (loaded != null) {
+			cache.asMap().compute(username, (key, cached) -> generation.get() == current ? loaded : cached);
+		}
+		return loaded;
+	}
+
+	// A geração muda antes da remoção: um compute de get em andamento ou vê a
+	// geração nova, ou termina antes e tem a entrada removida logo em seguida
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onUserChanged(UserChangedEvent event) {
+		generation.incrementAndGet();
+		cache.invalidateAll(event.getEmails());
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, cache, "userPrincipals");
+	}
+
+}
@@ -1,11 +1,14 @@
 package com.devsuperior.dscatalog.config;
 
+import java.time.Duration;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
-import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
+
+import com.devsuperior.dscatalog.components.BoundedBCryptPasswordEncoder;
+import com.devsuperior.dscatalog.components.CachingJwtTokenStore;
 
 @Configuration
 public class AppConfig {
@@ -13,14 +16,33 @@ public class AppConfig {
 	@Value("${jwt.secret}")
 	private String jwtSecret;
 	
+	@Value("${jwt.duration}")
+	private Integer jwtDuration;
+	
+	@Value("${jwt.token-cache.max-size:10000}")
+	private Long tokenCacheMaxSize;
+	
+	@Value("${security.bcrypt.threads:0}")
+	private Integer bcryptThreads;
+	
+	@Value("${security.bcrypt.queue-capacity:50}")
+	private Integer bcryptQueueCapacity;
+	
+	@Value("${security.bcrypt.timeout:5s}")
+	private Duration bcryptTimeout;
+	
 	/***
 	 * A anotação @Bean permite tornar uma método gerenciado pelo spring.
 	 * 
+	 * O BCrypt roda em um pool próprio e limitado, fora das threads do Tomcat;
+	 * sem security.bcrypt.threads, usa uma thread por processador.
+	 * 
 	 * @return
 	 */
 	@Bean
-	public BCryptPasswordEncoder passwordEnconder() {
-		return new BCryptPasswordEncoder();
+	public BoundedBCryptPasswordEncoder passwordEnconder() {
+		int threads = bcryptThreads > 0 ? bcryptThreads : Runtime.getRuntime().availableProcessors();
+		return new BoundedBCryptPasswordEncoder(threads, bcryptQueueCapacity, bcryptTimeout);
 	}
 	
 	@Bean
@@ -30,9 +52,10 @@ public class AppConfig {
 		return tokenConverter;
 	}
 
+	// Continua sendo um JwtTokenStore, mas guarda os tokens já verificados
 	@Bean
-	public JwtTokenStore tokenStore() {
-		return new JwtTokenStore(accessTokenConverter());
+	public CachingJwtTokenStore tokenStore() {
+		return new CachingJwtTokenStore(accessTokenConverter(), tokenCacheMaxSize, Duration.ofSeconds(jwtDuration));
 	}
 
 }
@@ -6,7 +6,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.oauth2.config.annotation.configurers.ClientDetailsServiceConfigurer;
 import org.springframework.security.oauth2.config.annotation.web.configuration.AuthorizationServerConfigurerAdapter;
 import org.springframework.security.oauth2.config.annotation.web.configuration.EnableAuthorizationServer;
@@ -16,7 +16,9 @@ import org.springframework.security.oauth2.provider.token.TokenEnhancerChain;
 import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
 import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
 
+import com.devsuperior.dscatalog.components.ClientSecretEncoder;
 import com.devsuperior.dscatalog.components.JwtTokenEnhancer;
+import com.devsuperior.dscatalog.components.TokenEndpointExceptionTranslator;
 
 @Configuration
 @EnableAuthorizationServer
@@ -31,8 +33,11 @@ public class AuthorizationServerConfig extends AuthorizationServerConfigurerAdap
 	@Value("${jwt.duration}")
 	private Integer jwtDuration;
 	
-	@Autowired
-	private BCryptPasswordEncoder passwordEncoder;
+	@Value("${jwt.refresh-duration}")
+	private Integer jwtRefreshDuration;
+	
+	// Não é um bean: o PasswordEncoder da aplicação continua sendo o BCrypt
+	private final ClientSecretEncoder clientSecretEncoder = new ClientSecretEncoder();
 	
 	@Autowired
 	private JwtAccessTokenConverter accessTokenConverter;
@@ -46,19 +51,27 @@ public class AuthorizationServerConfig extends AuthorizationServerConfigurerAdap
 	@Autowired
 	private JwtTokenEnhancer tokenEnhancer;
 	
+	@Autowired
+	private TokenEndpointExceptionTranslator exceptionTranslator;
+	
+	@Autowired
+	private UserDetailsService userDetailsService;
+	
 	@Override
 	public void configure(AuthorizationServerSecurityConfigurer security) throws Exception {
-		security.tokenKeyAccess("permitAll()").checkTokenAccess("isAuthenticated()");
+		security.tokenKeyAccess("permitAll()").checkTokenAccess("isAuthenticated()")
+		.passwordEncoder(clientSecretEncoder);
 	}
 
 	@Override
 	public void configure(ClientDetailsServiceConfigurer clients) throws Exception {
 		clients.inMemory()
 		.withClient(clientId)
-		.secret(passwordEncoder.encode(clientSecret))
+		.secret(clientSecretEncoder.encode(clientSecret))
 		.scopes("read", "write")
-		.authorizedGrantTypes("password")
-		.accessTokenValiditySeconds(jwtDuration);
+		.authorizedGrantTypes("password", "refresh_token")
+		.accessTokenValiditySeconds(jwtDuration)
+		.refreshTokenValiditySeconds(jwtRefreshDuration);
 	}
 
 	@Override
@@ -70,6 +83,11 @@ public class AuthorizationServerConfig extends AuthorizationServerConfigurerAdap
 		endpoints.authenticationManager(authenticationManager)
 		.tokenStore(tokenStore)
 		.accessTokenConverter(accessTokenConverter)
-		.tokenEnhancer(chain);
+		.tokenEnhancer(chain)
+		// No refresh_token o usuário é recarregado pelo e-mail (sem senha), para
+		// barrar contas removidas; o refresh token é reaproveitado e vence no
+		// prazo original, obrigando um novo login em jwt.refresh-duration
+		.userDetailsService(userDetailsService)
+		.exceptionTranslator(exceptionTranslator);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.devsuperior.dscatalog.config;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+
+/**
+ * Pool R2DBC das leituras não bloqueantes (/reactive/**), ao lado do Hikari.
+ * Só existe com r2dbc.enabled=true; desligado, /reactive/** não é mapeado.
+ *
+ * Orçamento de conexões: ligado, cada instância abre até
+ * spring.datasource.hikari.maximum-pool-size (10 por padrão) mais
+ * r2dbc.pool.max-size (10) conexões. Instâncias x 20 precisa caber no
+ * max_connections do Postgres (100 por padrão), com folga para migrações e
+ * acesso administrativo.
+ *
+ * O ConnectionFactory não é exposto como bean de propósito: com um no
+ * contexto, o Spring Boot deixa de configurar o DataSource do JPA. Pelo mesmo
+ * motivo a autoconfiguração de R2DBC fica desligada em application.properties.
+ */
+@Configuration
+@ConditionalOnProperty(name = "r2dbc.enabled", havingValue = "true")
+public class R2dbcConfig implements DisposableBean {
+
+	@Value("${r2dbc.url}")
+	private String url;
+
+	@Value("${r2dbc.username:}")
+	private String username;
+
+	@Value("${r2dbc.password:}")
+	private String password;
+
+	@Value("${r2dbc.pool.initial-size:2}")
+	private Integer initialSize;
+
+	@Value("${r2dbc.pool.max-size:10}")
+	private Integer maxSize;
+
+	private ConnectionPool pool;
+
+	@Bean
+	public DatabaseClient databaseClient() {
+		ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+				.option(ConnectionFactoryOptions.USER, username)
+				.option(ConnectionFactoryOptions.PASSWORD, password)
+				.build();
+
+		pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+				.initialSize(initialSize)
+				.maxSize(maxSize)
+				.build());
+
+		return DatabaseClient.create(pool);
+	}
+
+	@Override
+	public void destroy() {
+		if (pool != null) {
+			pool.dispose();
+		}
+	}
+
+}
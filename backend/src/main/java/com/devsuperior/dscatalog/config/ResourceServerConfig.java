@@ -31,7 +31,11 @@ public class ResourceServerConfig extends ResourceServerConfigurerAdapter {
 	
 	private static final String[] PUBLIC = { "/oauth/token", "/h2-console/**" };
 	
-	private static final String[] OPERATOR_OR_ADMIN = { "/products/**", "/categories/**" };
+	private static final String[] OPERATOR_OR_ADMIN = { "/products/**", "/categories/**", "/reactive/**" };
+	
+	// Protegidos também no GET: os jobs de importação expõem os erros dos arquivos
+	// e a exportação lê o catálogo inteiro de uma vez
+	private static final String[] OPERATOR_OR_ADMIN_ALL_METHODS = { "/products/import/**", "/products/export" };
 	
 	private static final String[] ADMIN = { "/users/**" };
 	
@@ -50,6 +54,7 @@ public class ResourceServerConfig extends ResourceServerConfigurerAdapter {
 		
 		http.authorizeRequests()
 		.antMatchers(PUBLIC).permitAll()
+		.antMatchers(OPERATOR_OR_ADMIN_ALL_METHODS).hasAnyRole("OPERATOR", "ADMIN")
 		.antMatchers(HttpMethod.GET, OPERATOR_OR_ADMIN).permitAll()
 		.antMatchers(OPERATOR_OR_ADMIN).hasAnyRole("OPERATOR", "ADMIN")
 		.antMatchers(ADMIN).hasRole("ADMIN")
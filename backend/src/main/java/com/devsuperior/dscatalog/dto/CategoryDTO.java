@@ -1,8 +1,10 @@
 package com.devsuperior.dscatalog.dto;
 
 import java.io.Serializable;
+import java.time.Instant;
 
 import com.devsuperior.dscatalog.entities.Category;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 public class CategoryDTO implements Serializable {
 	
@@ -11,6 +13,10 @@ public class CategoryDTO implements Serializable {
 	private Long id;
 	private String name;
 	
+	// Só para o ETag: última alteração (ou a criação) da categoria
+	@JsonIgnore
+	private Instant updatedAt;
+	
 	public CategoryDTO() {
 	}
 	
@@ -22,6 +28,7 @@ public class CategoryDTO implements Serializable {
 	public CategoryDTO(Category category) {
 		this.id = category.getId();
 		this.name = category.getName();
+		this.updatedAt = category.getUpdatedAt() != null ? category.getUpdatedAt() : category.getCreatedAt();
 	}
 
 	public Long getId() {
@@ -39,6 +46,14 @@ public class CategoryDTO implements Serializable {
 	public void setName(String name) {
 		this.name = name;
 	}
+
+	public Instant getUpdatedAt() {
+		return updatedAt;
+	}
+
+	public void setUpdatedAt(Instant updatedAt) {
+		this.updatedAt = updatedAt;
+	}
 	
 	
 	
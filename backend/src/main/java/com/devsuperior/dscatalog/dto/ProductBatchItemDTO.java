@@ -0,0 +1,57 @@
+package com.devsuperior.dscatalog.dto;
+
+import java.io.Serializable;
+
+public class ProductBatchItemDTO implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final String CREATED = "CREATED";
+	public static final String UPDATED = "UPDATED";
+	public static final String FAILED = "FAILED";
+
+	// Posição do item no array enviado
+	private Integer index;
+	private Long id;
+	private String status;
+	private String message;
+
+	public ProductBatchItemDTO() {
+	}
+
+	public ProductBatchItemDTO(Integer index, Long id, String status, String message) {
+		this.index = index;
+		this.id = id;
+		this.status = status;
+		this.message = message;
+	}
+
+	public static ProductBatchItemDTO success(int index, Long id, String status) {
+		return new ProductBatchItemDTO(index, id, status, null);
+	}
+
+	public static ProductBatchItemDTO failure(int index, Long id, String message) {
+		return new ProductBatchItemDTO(index, id, FAILED, message);
+	}
+
+	public Integer getIndex() {
+		return index;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getStatus() {
+		return status;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	public boolean isFailed() {
+		return FAILED.equals(status);
+	}
+
+}
@@ -0,0 +1,37 @@
+package com.devsuperior.dscatalog.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProductBatchResultDTO implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private Integer succeeded;
+	private Integer failed;
+	private List<ProductBatchItemDTO> items = new ArrayList<>();
+
+	public ProductBatchResultDTO() {
+	}
+
+	// Os itens devem estar na ordem do array enviado
+	public ProductBatchResultDTO(List<ProductBatchItemDTO> items) {
+		this.items = items;
+		this.failed = (int) items.stream().filter(ProductBatchItemDTO::isFailed).count();
+		this.succeeded = items.size() - failed;
+	}
+
+	public Integer getSucceeded() {
+		return succeeded;
+	}
+
+	public Integer getFailed() {
+		return failed;
+	}
+
+	public List<ProductBatchItemDTO> getItems() {
+		return items;
+	}
+
+}
@@ -0,0 +1,40 @@
+package com.devsuperior.dscatalog.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProductCursorPageDTO implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private List<ProductDTO> content = new ArrayList<>();
+	private Integer size;
+	private String next;
+
+	public ProductCursorPageDTO() {
+	}
+
+	public ProductCursorPageDTO(List<ProductDTO> content, Integer size, String next) {
+		this.content = content;
+		this.size = size;
+		this.next = next;
+	}
+
+	public List<ProductDTO> getContent() {
+		return content;
+	}
+
+	public Integer getSize() {
+		return size;
+	}
+
+	public String getNext() {
+		return next;
+	}
+
+	public boolean isLast() {
+		return next == null;
+	}
+
+}
@@ -12,6 +12,7 @@ import javax.validation.constraints.Size;
 
 import com.devsuperior.dscatalog.entities.Category;
 import com.devsuperior.dscatalog.entities.Product;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 public class ProductDTO implements Serializable {
 	
@@ -34,6 +35,10 @@ private static final long serialVersionUID = 1L;
 	private Instant date;
 	
 	private Set<CategoryDTO> categories = new HashSet<>();
+	
+	// Só para o ETag: não sai no JSON nem é lido na entrada
+	@JsonIgnore
+	private Long version;
 
 	public ProductDTO() {
 	}
@@ -55,6 +60,7 @@ private static final long serialVersionUID = 1L;
 		this.price = entity.getPrice();
 		this.imgUrl = entity.getImgUrl();
 		this.date = entity.getDate();
+		this.version = entity.getVersion();
 	}
 	
 	public ProductDTO(Product entity, Set<Category> categories) {
@@ -117,5 +123,13 @@ private static final long serialVersionUID = 1L;
 	public void setCategories(Set<CategoryDTO> categories) {
 		this.categories = categories;
 	}
+
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
 	
 }
@@ -0,0 +1,72 @@
+package com.devsuperior.dscatalog.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+public class ProductImportJobDTO implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private String id;
+	private String format;
+	private String status;
+	private Instant startedAt;
+	private Instant finishedAt;
+	private Long processed;
+	private Long succeeded;
+	private Long failed;
+	private String message;
+
+	public ProductImportJobDTO() {
+	}
+
+	public ProductImportJobDTO(String id, String format, String status, Instant startedAt, Instant finishedAt,
+			Long processed, Long succeeded, Long failed, String message) {
+		this.id = id;
+		this.format = format;
+		this.status = status;
+		this.startedAt = startedAt;
+		this.finishedAt = finishedAt;
+		this.processed = processed;
+		this.succeeded = succeeded;
+		this.failed = failed;
+		this.message = message;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public String getFormat() {
+		return format;
+	}
+
+	public String getStatus() {
+		return status;
+	}
+
+	public Instant getStartedAt() {
+		return startedAt;
+	}
+
+	public Instant getFinishedAt() {
+		return finishedAt;
+	}
+
+	public Long getProcessed() {
+		return processed;
+	}
+
+	public Long getSucceeded() {
+		return succeeded;
+	}
+
+	public Long getFailed() {
+		return failed;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+}
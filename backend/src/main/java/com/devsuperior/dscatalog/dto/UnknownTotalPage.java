@@ -0,0 +1,48 @@
+package com.devsuperior.dscatalog.dto;
+
+import java.util.List;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Página sem o total: o COUNT não terminou no prazo. totalElements e
+ * totalPages vêm como -1 e totalKnown como false; hasNext e last continuam
+ * corretos, pela consulta da página.
+ */
+public class UnknownTotalPage<T> extends PageImpl<T> {
+
+	private static final long serialVersionUID = 1L;
+
+	private final boolean hasNext;
+
+	public UnknownTotalPage(List<T> content, Pageable pageable, boolean hasNext) {
+		super(content, pageable, pageable.getOffset() + content.size() + (hasNext ? 1 : 0));
+		this.hasNext = hasNext;
+	}
+
+	@Override
+	public long getTotalElements() {
+		return -1;
+	}
+
+	@Override
+	public int getTotalPages() {
+		return -1;
+	}
+
+	@Override
+	public boolean hasNext() {
+		return hasNext;
+	}
+
+	@Override
+	public boolean isLast() {
+		return !hasNext;
+	}
+
+	public boolean isTotalKnown() {
+		return false;
+	}
+
+}
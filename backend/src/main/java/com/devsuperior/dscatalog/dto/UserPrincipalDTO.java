@@ -0,0 +1,80 @@
+package com.devsuperior.dscatalog.dto;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.devsuperior.dscatalog.entities.Role;
+import com.devsuperior.dscatalog.entities.User;
+
+/**
+ * Cópia imutável do usuário autenticado, guardada no UserPrincipalCache.
+ * 
+ * Não implementa CredentialsContainer de propósito: o Spring Security apagaria
+ * o hash da senha da instância que está no cache depois do primeiro login.
+ */
+public final class UserPrincipalDTO implements UserDetails, Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final Long id;
+	private final String firstName;
+	private final String username;
+	private final String password;
+	private final List<GrantedAuthority> authorities;
+
+	public UserPrincipalDTO(User entity) {
+		this.id = entity.getId();
+		this.firstName = entity.getFirstName();
+		this.username = entity.getEmail();
+		this.password = entity.getPassword();
+		this.authorities = Role.authoritiesOf(entity.getRoles());
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getFirstName() {
+		return firstName;
+	}
+
+	@Override
+	public Collection<? extends GrantedAuthority> getAuthorities() {
+		return authorities;
+	}
+
+	@Override
+	public String getPassword() {
+		return password;
+	}
+
+	@Override
+	public String getUsername() {
+		return username;
+	}
+
+	@Override
+	public boolean isAccountNonExpired() {
+		return true;
+	}
+
+	@Override
+	public boolean isAccountNonLocked() {
+		return true;
+	}
+
+	@Override
+	public boolean isCredentialsNonExpired() {
+		return true;
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return true;
+	}
+
+}
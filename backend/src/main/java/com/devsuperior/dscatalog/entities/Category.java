@@ -16,8 +16,12 @@ import javax.persistence.PrePersist;
 import javax.persistence.PreUpdate;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 @Entity
 @Table(name = "tb_category")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "category")
 public class Category implements Serializable {
 
 	/**
@@ -38,7 +42,7 @@ public class Category implements Serializable {
 	private Instant updatedAt;
 
 	@ManyToMany(mappedBy = "categories")
-	private Set<Product> products = new HashSet<>();
+	private Set<Product> products;
 
 	public Category() {
 
@@ -74,7 +78,11 @@ public class Category implements Serializable {
 		return updatedAt;
 	}
 
+	// Criado no primeiro acesso, como Product.categories
 	public Set<Product> getProducts() {
+		if (products == null) {
+			products = new HashSet<>();
+		}
 		return products;
 	}
 
@@ -6,15 +6,22 @@ import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
 
+import javax.persistence.Basic;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.JoinTable;
 import javax.persistence.ManyToMany;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.Version;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "tb_product")
@@ -26,11 +33,17 @@ public class Product implements Serializable {
 	 */
 	private static final long serialVersionUID = 1L;
 
+	// Sequence com blocos de 50 ids (otimizador pooled-lo): o id é conhecido antes
+	// do INSERT, o que permite ao Hibernate agrupar os INSERTs em lotes JDBC.
+	// Com IDENTITY cada produto precisava de um round trip para obter o id.
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+	@SequenceGenerator(name = "product_seq", sequenceName = "tb_product_seq", allocationSize = 50)
 	private Long id;
 	private String name;
 
+	// Só é lida quando acessada (depende do enhancement do hibernate-enhance-maven-plugin)
+	@Basic(fetch = FetchType.LAZY)
 	@Column(columnDefinition = "TEXT")
 	private String description;
 	private Double price;
@@ -39,11 +52,18 @@ public class Product implements Serializable {
 	@Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
 	private Instant date;
 
+	// Incrementada a cada alteração, inclusive só das categorias; é a base do ETag
+	@Version
+	private Long version;
+
 	// Quando tem um relação de muitos para muitos utiliza o Set para evitar
 	// repetição
 	@ManyToMany
 	@JoinTable(name = "tb_product_category", joinColumns = @JoinColumn(name = "product_id"), inverseJoinColumns = @JoinColumn(name = "category_id"))
-	private Set<Category> categories = new HashSet<>();
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product-categories")
+	// Sem inicializador: na classe instrumentada ele passa pelo dirty tracking e
+	// todo produto carregado do banco nasceria com "categories" alterado
+	private Set<Category> categories;
 
 	public Product() {
 	}
@@ -105,7 +125,14 @@ public class Product implements Serializable {
 		this.date = date;
 	}
 
+	public Long getVersion() {
+		return version;
+	}
+
 	public Set<Category> getCategories() {
+		if (categories == null) {
+			categories = new HashSet<>();
+		}
 		return categories;
 	}
 
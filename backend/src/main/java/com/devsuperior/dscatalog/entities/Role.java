@@ -1,7 +1,14 @@
 package com.devsuperior.dscatalog.entities;
 
 import java.io.Serializable;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
@@ -9,12 +16,26 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+// Os perfis vêm do data.sql e a aplicação nunca os altera
 @Entity
+@Immutable
 @Table(name = "tb_role")
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "role")
 public class Role implements Serializable {
 	
 	private static final long serialVersionUID = 1L;
 	
+	// Os perfis são poucos e as combinações também: cada autoridade e cada
+	// lista de autoridades existe uma vez só, compartilhada por todos os usuários
+	private static final Map<String, GrantedAuthority> AUTHORITIES = new ConcurrentHashMap<>();
+	private static final Map<Set<String>, List<GrantedAuthority>> AUTHORITY_LISTS = new ConcurrentHashMap<>();
+	
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Long id;
@@ -44,6 +65,21 @@ public class Role implements Serializable {
 		this.authority = authority;
 	}
 
+	/**
+	 * Lista imutável e compartilhada com as autoridades dos perfis, em ordem
+	 * alfabética.
+	 */
+	public static List<GrantedAuthority> authoritiesOf(Collection<Role> roles) {
+		Set<String> names = new HashSet<>();
+		for (Role role : roles) {
+			names.add(role.getAuthority());
+		}
+		return AUTHORITY_LISTS.computeIfAbsent(names, key -> key.stream()
+				.sorted()
+				.map(name -> AUTHORITIES.computeIfAbsent(name, SimpleGrantedAuthority::new))
+				.collect(Collectors.toUnmodifiableList()));
+	}
+
 	@Override
 	public int hashCode() {
 		return Objects.hash(id);
@@ -5,7 +5,6 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -18,8 +17,10 @@ import javax.persistence.JoinTable;
 import javax.persistence.ManyToMany;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 @Entity
@@ -37,9 +38,13 @@ public class User implements UserDetails, Serializable {
 	private String email;
 	private String password;
 
+	// EAGER continua, mas os perfis de uma página inteira de usuários vêm em um
+	// único SELECT ... IN (em vez de um por usuário) e ficam no cache de segundo nível
 	@ManyToMany(fetch = FetchType.EAGER)
+	@BatchSize(size = 100)
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-roles")
 	@JoinTable(name = "tb_user_role", joinColumns = @JoinColumn(name = "user_id"), inverseJoinColumns = @JoinColumn(name = "role_id"))
-	private Set<Role> roles = new HashSet<>();
+	private Set<Role> roles;
 
 	public User() {
 	}
@@ -93,7 +98,11 @@ public class User implements UserDetails, Serializable {
 		this.password = password;
 	}
 
+	// Criado no primeiro acesso, como Product.categories
 	public Set<Role> getRoles() {
+		if (roles == null) {
+			roles = new HashSet<>();
+		}
 		return roles;
 	}
 
@@ -116,8 +125,7 @@ public class User implements UserDetails, Serializable {
 
 	@Override
 	public Collection<? extends GrantedAuthority> getAuthorities() {
-		return roles.stream().map(role -> new SimpleGrantedAuthority(role.getAuthority()))
-				.collect(Collectors.toList());
+		return Role.authoritiesOf(getRoles());
 	}
 
 	@Override
@@ -0,0 +1,12 @@
+package com.devsuperior.dscatalog.repositories;
+
+/**
+ * Projeção com apenas o id e o nome do produto, usada para montar o índice de
+ * busca por nome sem carregar as entidades.
+ */
+public interface ProductNameProjection {
+
+	Long getId();
+
+	String getName();
+}
@@ -1,25 +1,95 @@
 package com.devsuperior.dscatalog.repositories;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
-import com.devsuperior.dscatalog.entities.Category;
 import com.devsuperior.dscatalog.entities.Product;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
-	@Query("SELECT DISTINCT obj FROM Product obj INNER JOIN obj.categories cats WHERE "
-			+ "(COALESCE(:categories) IS NULL OR cats IN :categories) AND "
+	// A listagem pagina somente sobre os ids; os dados vêm depois, em uma única
+	// consulta, por findRows. O EXISTS substitui o JOIN + DISTINCT no filtro de
+	// categoria e o Slice não dispara o COUNT (o total vem de countIds).
+	@Query("SELECT obj.id FROM Product obj WHERE "
+			+ "EXISTS (SELECT c.id FROM Product p2 JOIN p2.categories c WHERE p2.id = obj.id "
+			+ "AND (:categoryId = 0L OR c.id = :categoryId)) AND "
+			+ "(LOWER(obj.name) LIKE LOWER(CONCAT('%',:name,'%')) )")
+	Slice<Long> findIds(Long categoryId, String name, Pageable pageable);
+	
+	@Query("SELECT COUNT(obj) FROM Product obj WHERE "
+			+ "EXISTS (SELECT c.id FROM Product p2 JOIN p2.categories c WHERE p2.id = obj.id "
+			+ "AND (:categoryId = 0L OR c.id = :categoryId)) AND "
 			+ "(LOWER(obj.name) LIKE LOWER(CONCAT('%',:name,'%')) )")
-	Page<Product> find(List<Category> categories, String name, Pageable pageable);
+	long countIds(Long categoryId, String name);
+	
+	@Query("SELECT obj.id FROM Product obj WHERE "
+			+ "EXISTS (SELECT c.id FROM Product p2 JOIN p2.categories c WHERE p2.id = obj.id "
+			+ "AND (:categoryId = 0L OR c.id = :categoryId)) AND "
+			+ "obj.id IN :ids")
+	Slice<Long> findIdsIn(Long categoryId, Collection<Long> ids, Pageable pageable);
+	
+	@Query("SELECT COUNT(obj) FROM Product obj WHERE "
+			+ "EXISTS (SELECT c.id FROM Product p2 JOIN p2.categories c WHERE p2.id = obj.id "
+			+ "AND (:categoryId = 0L OR c.id = :categoryId)) AND "
+			+ "obj.id IN :ids")
+	long countIdsIn(Long categoryId, Collection<Long> ids);
+	
+	// Paginação por cursor (keyset): busca a partir do último (chave, id) entregue,
+	// sem OFFSET.
+	@Query("SELECT obj.id FROM Product obj WHERE "
+			+ "EXISTS (SELECT c.id FROM Product p2 JOIN p2.categories c WHERE p2.id = obj.id "
+			+ "AND (:categoryId = 0L OR c.id = :categoryId)) AND "
+			+ "(LOWER(obj.name) LIKE LOWER(CONCAT('%',:name,'%')) ) AND "
+			+ "obj.id > :lastId "
+			+ "ORDER BY obj.id")
+	List<Long> findIdsAfterId(Long categoryId, String name, Long lastId, Pageable pageable);
+	
+	@Query("SELECT obj.id FROM Product obj WHERE "
+			+ "EXISTS (SELECT c.id FROM Product p2 JOIN p2.categories c WHERE p2.id = obj.id "
+			+ "AND (:categoryId = 0L OR c.id = :categoryId)) AND "
+			+ "(LOWER(obj.name) LIKE LOWER(CONCAT('%',:name,'%')) ) AND "
+			+ "(obj.name > :lastName OR (obj.name = :lastName AND obj.id > :lastId)) "
+			+ "ORDER BY obj.name, obj.id")
+	List<Long> findIdsAfterName(Long categoryId, String name, String lastName, Long lastId, Pageable pageable);
+	
+	// Uma linha por (produto, categoria), sem ordem: quem chama reordena pelos ids
+	@Query("SELECT new com.devsuperior.dscatalog.repositories.ProductRow("
+			+ "obj.id, obj.name, obj.description, obj.price, obj.imgUrl, obj.date, cat.id, cat.name, obj.version) "
+			+ "FROM Product obj LEFT JOIN obj.categories cat WHERE obj.id IN :ids")
+	List<ProductRow> findRows(Collection<Long> ids);
+	
+	// Mesmas linhas sem obj.description
+	@Query("SELECT new com.devsuperior.dscatalog.repositories.ProductRow("
+			+ "obj.id, obj.name, obj.price, obj.imgUrl, obj.date, cat.id, cat.name) "
+			+ "FROM Product obj LEFT JOIN obj.categories cat WHERE obj.id IN :ids")
+	List<ProductRow> findSummaryRows(Collection<Long> ids);
+	
+	// Catálogo inteiro para exportação: linhas (não entidades), então nada fica no
+	// contexto de persistência. Ordenado por produto para agrupar as categorias.
+	// O fetch size faz o driver trazer as linhas aos poucos (no Postgres, só
+	// dentro de uma transação).
+	@QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+	@Query("SELECT new com.devsuperior.dscatalog.repositories.ProductRow("
+			+ "obj.id, obj.name, obj.description, obj.price, obj.imgUrl, obj.date, cat.id, cat.name) "
+			+ "FROM Product obj LEFT JOIN obj.categories cat ORDER BY obj.id, cat.id")
+	Stream<ProductRow> streamAllRows();
+	
+	// Entidades gerenciadas para atualização em lote, com as categorias já carregadas
+	@Query("SELECT DISTINCT obj FROM Product obj LEFT JOIN FETCH obj.categories WHERE obj.id IN :ids")
+	List<Product> findAllWithCategories(Collection<Long> ids);
 	
-	@Query("SELECT obj FROM Product obj JOIN FETCH obj.categories WHERE obj IN :products")
-	List<Product> findProductsWithCategories(List<Product> products);
+	@Query("SELECT obj.id AS id, obj.name AS name FROM Product obj")
+	List<ProductNameProjection> findAllNames();
 
 }
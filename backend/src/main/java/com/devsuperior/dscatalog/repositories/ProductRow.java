@@ -0,0 +1,82 @@
+package com.devsuperior.dscatalog.repositories;
+
+import java.time.Instant;
+
+/**
+ * Linha de leitura da listagem de produtos: os campos do produto mais uma das
+ * suas categorias. É montada direto pela consulta (SELECT new), sem criar
+ * entidades gerenciadas pelo JPA.
+ */
+public class ProductRow {
+
+	private final Long id;
+	private final String name;
+	private final String description;
+	private final Double price;
+	private final String imgUrl;
+	private final Instant date;
+	private final Long categoryId;
+	private final String categoryName;
+	private final Long version;
+
+	// Listagem resumida: a descrição (TEXT) não é selecionada
+	public ProductRow(Long id, String name, Double price, String imgUrl, Instant date, Long categoryId,
+			String categoryName) {
+		this(id, name, null, price, imgUrl, date, categoryId, categoryName, null);
+	}
+
+	public ProductRow(Long id, String name, String description, Double price, String imgUrl, Instant date,
+			Long categoryId, String categoryName) {
+		this(id, name, description, price, imgUrl, date, categoryId, categoryName, null);
+	}
+
+	public ProductRow(Long id, String name, String description, Double price, String imgUrl, Instant date,
+			Long categoryId, String categoryName, Long version) {
+		this.id = id;
+		this.name = name;
+		this.description = description;
+		this.price = price;
+		this.imgUrl = imgUrl;
+		this.date = date;
+		this.categoryId = categoryId;
+		this.categoryName = categoryName;
+		this.version = version;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getDescription() {
+		return description;
+	}
+
+	public Double getPrice() {
+		return price;
+	}
+
+	public String getImgUrl() {
+		return imgUrl;
+	}
+
+	public Instant getDate() {
+		return date;
+	}
+
+	public Long getCategoryId() {
+		return categoryId;
+	}
+
+	public String getCategoryName() {
+		return categoryName;
+	}
+
+	public Long getVersion() {
+		return version;
+	}
+
+}
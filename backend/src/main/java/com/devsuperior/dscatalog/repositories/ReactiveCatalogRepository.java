@@ -0,0 +1,119 @@
+package com.devsuperior.dscatalog.repositories;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Map;
+import java.util.StringJoiner;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.devsuperior.dscatalog.entities.Category;
+
+import io.r2dbc.spi.Row;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Consultas de leitura do catálogo pelo driver R2DBC, sem bloquear thread.
+ *
+ * Os filtros são os mesmos de ProductRepository.findIds/countIds, escritos em
+ * SQL: só produtos com ao menos uma categoria (categoryId = 0 aceita qualquer
+ * uma) e nome contendo o texto, sem diferenciar maiúsculas. A ordenação aceita
+ * apenas os campos mapeados abaixo e termina sempre pelo id, para que as
+ * páginas não se sobreponham.
+ */
+@Repository
+@ConditionalOnProperty(name = "r2dbc.enabled", havingValue = "true")
+public class ReactiveCatalogRepository {
+
+	private static final String PRODUCT_FILTER = "FROM tb_product obj WHERE "
+			+ "EXISTS (SELECT 1 FROM tb_product_category pc WHERE pc.product_id = obj.id "
+			+ "AND (:categoryId = 0 OR pc.category_id = :categoryId)) AND "
+			+ "LOWER(obj.name) LIKE LOWER(CONCAT('%', :name, '%'))";
+
+	private static final Map<String, String> PRODUCT_COLUMNS = Map.of("id", "obj.id", "name", "obj.name", "price",
+			"obj.price", "date", "obj.date", "imgUrl", "obj.img_url");
+
+	private static final Map<String, String> CATEGORY_COLUMNS = Map.of("id", "obj.id", "name", "obj.name",
+			"createdAt", "obj.created_at", "updatedAt", "obj.updated_at");
+
+	@Autowired
+	private DatabaseClient client;
+
+	public Flux<Long> findIds(Long categoryId, String name, Pageable pageable) {
+		return client.sql("SELECT obj.id " + PRODUCT_FILTER + orderBy(pageable.getSort(), PRODUCT_COLUMNS)
+				+ " LIMIT :limit OFFSET :offset")
+				.bind("categoryId", categoryId)
+				.bind("name", name)
+				.bind("limit", pageable.getPageSize())
+				.bind("offset", pageable.getOffset())
+				.map(row -> row.get("id", Long.class))
+				.all();
+	}
+
+	public Mono<Long> countIds(Long categoryId, String name) {
+		return client.sql("SELECT COUNT(*) AS total " + PRODUCT_FILTER)
+				.bind("categoryId", categoryId)
+				.bind("name", name)
+				.map(row -> row.get("total", Long.class))
+				.one();
+	}
+
+	// Uma linha por (produto, categoria), sem ordem, como em ProductRepository.findRows
+	public Flux<ProductRow> findRows(Collection<Long> ids) {
+		return client.sql("SELECT obj.id, obj.name, obj.description, obj.price, obj.img_url, obj.date, "
+				+ "obj.version, cat.id AS category_id, cat.name AS category_name "
+				+ "FROM tb_product obj "
+				+ "LEFT JOIN tb_product_category pc ON pc.product_id = obj.id "
+				+ "LEFT JOIN tb_category cat ON cat.id = pc.category_id "
+				+ "WHERE obj.id IN (:ids)")
+				.bind("ids", ids)
+				.map(row -> new ProductRow(row.get("id", Long.class), row.get("name", String.class),
+						row.get("description", String.class), row.get("price", Double.class),
+						row.get("img_url", String.class), instant(row, "date"), row.get("category_id", Long.class),
+						row.get("category_name", String.class), row.get("version", Long.class)))
+				.all();
+	}
+
+	// Instâncias soltas, fora de qualquer contexto de persistência
+	public Flux<Category> findCategories(Pageable pageable) {
+		return client.sql("SELECT obj.id, obj.name FROM tb_category obj" + orderBy(pageable.getSort(), CATEGORY_COLUMNS)
+				+ " LIMIT :limit OFFSET :offset")
+				.bind("limit", pageable.getPageSize())
+				.bind("offset", pageable.getOffset())
+				.map(row -> new Category(row.get("id", Long.class), row.get("name", String.class)))
+				.all();
+	}
+
+	public Mono<Long> countCategories() {
+		return client.sql("SELECT COUNT(*) AS total FROM tb_category")
+				.map(row -> row.get("total", Long.class))
+				.one();
+	}
+
+	private static String orderBy(Sort sort, Map<String, String> columns) {
+		StringJoiner orderBy = new StringJoiner(", ", " ORDER BY ", "");
+		for (Sort.Order order : sort) {
+			String column = columns.get(order.getProperty());
+			if (column != null) {
+				orderBy.add(column + (order.isAscending() ? " ASC" : " DESC"));
+			}
+		}
+		orderBy.add("obj.id");
+		return orderBy.toString();
+	}
+
+	// O Hibernate grava o Instant como TIMESTAMP no fuso da JVM
+	private static Instant instant(Row row, String column) {
+		LocalDateTime value = row.get(column, LocalDateTime.class);
+		return (value == null) ? null : value.atZone(ZoneId.systemDefault()).toInstant();
+	}
+
+}
@@ -1,6 +1,9 @@
 package com.devsuperior.dscatalog.repositories;
 
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.devsuperior.dscatalog.entities.User;
@@ -9,4 +12,12 @@ import com.devsuperior.dscatalog.entities.User;
 public interface UserRepository extends JpaRepository<User, Long> {
 
 	User findByEmail(String email);
+	
+	// Consultas de existência: não carregam o usuário nem os perfis
+	boolean existsByEmail(String email);
+	
+	boolean existsByEmailAndIdNot(String email, Long id);
+	
+	@Query("SELECT obj.email FROM User obj")
+	List<String> findAllEmails();
 }
@@ -14,8 +14,10 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.devsuperior.dscatalog.components.CatalogVersion;
 import com.devsuperior.dscatalog.dto.CategoryDTO;
 import com.devsuperior.dscatalog.services.CategoryService;
 
@@ -26,19 +28,31 @@ public class CategoryResource {
 	@Autowired
 	private CategoryService service;
 	
+	@Autowired
+	private CatalogVersion catalogVersion;
+	
 	@GetMapping
 	public ResponseEntity<Page<CategoryDTO>> findAll(
-			Pageable pageable
+			Pageable pageable,
+			WebRequest request
 			) {
 		
+		if (request.checkNotModified(catalogVersion.categoriesTag())) {
+			return null;
+		}
+		
 		Page<CategoryDTO> list = service.findAllPaged(pageable);
 		return ResponseEntity.ok(list);
 	}
 	
 	@GetMapping(value = "/{id}")
-	public ResponseEntity<CategoryDTO> findById(@PathVariable Long id) {
+	public ResponseEntity<CategoryDTO> findById(@PathVariable Long id, WebRequest request) {
 		CategoryDTO categoryDTO = service.findById(id);
 		
+		if (request.checkNotModified(catalogVersion.categoryTag(categoryDTO))) {
+			return null;
+		}
+		
 		return ResponseEntity.ok().body(categoryDTO);
 	}
 	
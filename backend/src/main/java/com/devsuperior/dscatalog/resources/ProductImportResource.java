@@ -0,0 +1,89 @@
+package com.devsuperior.dscatalog.resources;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import com.devsuperior.dscatalog.components.ProductImportJobs;
+import com.devsuperior.dscatalog.dto.ProductImportJobDTO;
+import com.devsuperior.dscatalog.services.ProductImportService;
+import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
+
+@RestController
+@RequestMapping(value = "/products/import")
+public class ProductImportResource {
+	
+	private static final String NDJSON = "application/x-ndjson";
+	private static final String CSV = "text/csv";
+	
+	@Autowired
+	private ProductImportService service;
+	
+	@Autowired
+	private ProductImportJobs jobs;
+	
+	// O corpo vai para um arquivo temporário, nunca inteiro em memória, e a
+	// importação segue em segundo plano: 202 com o job e o Location para acompanhar
+	@PostMapping(consumes = { NDJSON, CSV })
+	public ResponseEntity<ProductImportJobDTO> importProducts(
+			@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+			InputStream body) {
+		
+		String format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType(CSV))
+				? ProductImportService.CSV
+				: ProductImportService.NDJSON;
+		
+		ProductImportJobDTO job = service.importProducts(body, format);
+		
+		URI uri = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}")
+				.buildAndExpand(job.getId()).toUri();
+		
+		return ResponseEntity.accepted().location(uri).body(job);
+	}
+	
+	@GetMapping
+	public ResponseEntity<List<ProductImportJobDTO>> findAll() {
+		return ResponseEntity.ok(jobs.findAll());
+	}
+	
+	@GetMapping(value = "/{id}")
+	public ResponseEntity<ProductImportJobDTO> findById(@PathVariable String id) {
+		return ResponseEntity.ok(findJob(id).toDTO());
+	}
+	
+	// CSV com record,message de cada registro recusado
+	@GetMapping(value = "/{id}/errors")
+	public ResponseEntity<Resource> errors(@PathVariable String id) {
+		ProductImportJobs.Job job = findJob(id);
+		
+		return ResponseEntity.ok()
+				.contentType(MediaType.parseMediaType(CSV))
+				.header(HttpHeaders.CONTENT_DISPOSITION,
+						ContentDisposition.attachment().filename("import-" + id + "-errors.csv").build().toString())
+				.body(new FileSystemResource(job.getErrors()));
+	}
+	
+	private ProductImportJobs.Job findJob(String id) {
+		ProductImportJobs.Job job = jobs.find(id);
+		if (job == null) {
+			throw new ResourceNotFoundException("Import job not found " + id);
+		}
+		return job;
+	}
+
+}
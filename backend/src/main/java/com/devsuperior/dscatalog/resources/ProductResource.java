@@ -1,12 +1,20 @@
 package com.devsuperior.dscatalog.resources;
 
+import java.io.IOException;
 import java.net.URI;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,38 +22,185 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.devsuperior.dscatalog.components.CatalogVersion;
+import com.devsuperior.dscatalog.components.ProductPageCache;
+import com.devsuperior.dscatalog.dto.ProductBatchResultDTO;
+import com.devsuperior.dscatalog.dto.ProductCursorPageDTO;
 import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.dto.ProductSummaryDTO;
+import com.devsuperior.dscatalog.services.ProductBatchService;
+import com.devsuperior.dscatalog.services.ProductExportService;
 import com.devsuperior.dscatalog.services.ProductService;
 
 @RestController
 @RequestMapping(value = "/products")
 public class ProductResource {
 	
+	private static final int MAX_CURSOR_PAGE_SIZE = 2000;
+	
 	@Autowired
 	private ProductService service;
 	
+	@Autowired
+	private ProductBatchService batchService;
+	
+	@Autowired
+	private ProductExportService exportService;
+	
+	@Autowired
+	private CatalogVersion catalogVersion;
+	
+	@Autowired
+	private ProductPageCache pageCache;
+	
+	// Nas consultas, If-None-Match com o ETag atual responde 304 sem ir ao banco
 	@GetMapping
 	public ResponseEntity<Page<ProductDTO>> findAll(
 			@RequestParam(value = "categoryId", defaultValue = "0") Long categoryId,
 			@RequestParam(value = "name", defaultValue = "") String name,
-			Pageable pageable
-			) {
+			@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, defaultValue = "") String acceptEncoding,
+			Pageable pageable,
+			WebRequest request,
+			HttpServletResponse response
+			) throws IOException {
 		
 		// PARAMETRO Pageable: page, size, sort
 		
+		// O corpo em gzip é outra representação: ETag próprio e Vary também no 304
+		boolean cached = pageCache.accepts(name.trim(), pageable);
+		boolean gzip = cached && acceptsGzip(acceptEncoding);
+		response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		if (request.checkNotModified(productsTag(gzip))) {
+			return null;
+		}
+		
+		// Primeiras páginas sem nome: bytes prontos do ProductPageCache, escritos direto na resposta
+		if (cached) {
+			pageCache.write("full", categoryId, pageable, gzip, response,
+					() -> service.findAllPaged(categoryId, "", pageable));
+			return null;
+		}
+		
 		Page<ProductDTO> list = service.findAllPaged(categoryId, name.trim(), pageable);
 		return ResponseEntity.ok(list);
 	}
 	
+	// Listagem para a grade do catálogo: sem a descrição, que não é nem lida do banco.
+	// Com after a paginação por cursor tem precedência.
+	@GetMapping(params = { "view=summary", "!after" })
+	public ResponseEntity<Page<ProductSummaryDTO>> findAllSummary(
+			@RequestParam(value = "categoryId", defaultValue = "0") Long categoryId,
+			@RequestParam(value = "name", defaultValue = "") String name,
+			@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, defaultValue = "") String acceptEncoding,
+			Pageable pageable,
+			WebRequest request,
+			HttpServletResponse response
+			) throws IOException {
+		
+		// Mesmo ETag por codificação do findAll
+		boolean cached = pageCache.accepts(name.trim(), pageable);
+		boolean gzip = cached && acceptsGzip(acceptEncoding);
+		response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		if (request.checkNotModified(productsTag(gzip))) {
+			return null;
+		}
+		
+		if (cached) {
+			pageCache.write("summary", categoryId, pageable, gzip, response,
+					() -> service.findAllSummaryPaged(categoryId, "", pageable));
+			return null;
+		}
+		
+		Page<ProductSummaryDTO> list = service.findAllSummaryPaged(categoryId, name.trim(), pageable);
+		return ResponseEntity.ok(list);
+	}
+	
+	// Mesma listagem, mas sem o total de elementos: não executa o COUNT
+	@GetMapping(value = "/slice")
+	public ResponseEntity<Slice<ProductDTO>> findAllSliced(
+			@RequestParam(value = "categoryId", defaultValue = "0") Long categoryId,
+			@RequestParam(value = "name", defaultValue = "") String name,
+			Pageable pageable,
+			WebRequest request
+			) {
+		
+		if (request.checkNotModified(catalogVersion.productsTag())) {
+			return null;
+		}
+		
+		Slice<ProductDTO> list = service.findAllSliced(categoryId, name.trim(), pageable);
+		return ResponseEntity.ok(list);
+	}
+	
+	// Paginação por cursor: GET /products?after=&size=12 para a primeira página e
+	// depois after=<next> da resposta anterior. Não usa OFFSET nem COUNT.
+	@GetMapping(params = "after")
+	public ResponseEntity<ProductCursorPageDTO> findAllByCursor(
+			@RequestParam(value = "categoryId", defaultValue = "0") Long categoryId,
+			@RequestParam(value = "name", defaultValue = "") String name,
+			@RequestParam(value = "after") String after,
+			@RequestParam(value = "sort", defaultValue = "id") String sort,
+			@RequestParam(value = "size", defaultValue = "12") Integer size,
+			WebRequest request
+			) {
+		
+		if (request.checkNotModified(catalogVersion.productsTag())) {
+			return null;
+		}
+		
+		size = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+		
+		ProductCursorPageDTO page = service.findAllByCursor(categoryId, name.trim(), after, sort, size);
+		return ResponseEntity.ok(page);
+	}
+	
+	// Catálogo inteiro em NDJSON, um produto por linha, comprimido com gzip quando
+	// o cliente aceita. A escrita acontece fora da thread da requisição.
+	@GetMapping(value = "/export")
+	public ResponseEntity<StreamingResponseBody> export(
+			@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, defaultValue = "") String acceptEncoding) {
+		
+		boolean gzip = acceptsGzip(acceptEncoding);
+		
+		StreamingResponseBody body = out -> {
+			if (gzip) {
+				try (GZIPOutputStream gzipOut = new GZIPOutputStream(out, 64 * 1024)) {
+					exportService.exportTo(gzipOut);
+				}
+			}
+			else {
+				exportService.exportTo(out);
+			}
+		};
+		
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+				.contentType(MediaType.parseMediaType("application/x-ndjson"))
+				.header(HttpHeaders.CONTENT_DISPOSITION,
+						ContentDisposition.attachment().filename(gzip ? "products.ndjson.gz" : "products.ndjson").build().toString())
+				.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		if (gzip) {
+			response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+		}
+		return response.body(body);
+	}
+	
 	@GetMapping(value = "/{id}")
-	public ResponseEntity<ProductDTO> findById(@PathVariable Long id) {
+	public ResponseEntity<ProductDTO> findById(@PathVariable Long id, WebRequest request) {
 		ProductDTO productDTO = service.findById(id);
 		
+		// O produto vem do ProductCache: o 304 evita só a serialização
+		if (request.checkNotModified(catalogVersion.productTag(productDTO))) {
+			return null;
+		}
+		
 		return ResponseEntity.ok().body(productDTO);
 	}
 	
@@ -66,11 +221,69 @@ public class ProductResource {
 		return ResponseEntity.ok().body(productDTO);
 	}
 	
+	// Lotes: cada item é validado e gravado individualmente no resultado, então
+	// a resposta é 200 mesmo quando parte dos itens falha (status FAILED).
+	@PostMapping(value = "/batch")
+	public ResponseEntity<ProductBatchResultDTO> insertAll(@RequestBody List<ProductDTO> dtos) {
+		ProductBatchResultDTO result = batchService.insertAll(dtos);
+		
+		return ResponseEntity.ok().body(result);
+	}
+	
+	@PutMapping(value = "/batch")
+	public ResponseEntity<ProductBatchResultDTO> updateAll(@RequestBody List<ProductDTO> dtos) {
+		ProductBatchResultDTO result = batchService.updateAll(dtos);
+		
+		return ResponseEntity.ok().body(result);
+	}
+	
 	@DeleteMapping(value = "/{id}")
 	public ResponseEntity<Void> delete(@PathVariable Long id) {
 		service.delete(id);
 		
 		return ResponseEntity.noContent().build();
 	}
+	
+	// "p-1-2-3" vira "p-1-2-3-gz": o ETag forte identifica os bytes, e os do gzip são outros
+	private String productsTag(boolean gzip) {
+		String tag = catalogVersion.productsTag();
+		return gzip ? tag.substring(0, tag.length() - 1) + "-gz\"" : tag;
+	}
+	
+	/**
+	 * Accept-Encoding com pesos (RFC 7231, 5.3.4): "gzip;q=0" recusa o gzip e
+	 * "*" vale para o gzip quando ele não aparece pelo nome.
+	 */
+	static boolean acceptsGzip(String acceptEncoding) {
+		double gzip = -1;
+		double any = -1;
+		for (String coding : acceptEncoding.split(",")) {
+			String[] parts = coding.split(";");
+			String name = parts[0].trim().toLowerCase();
+			if (name.equals("gzip") || name.equals("x-gzip")) {
+				gzip = Math.max(gzip, quality(parts));
+			}
+			else if (name.equals("*")) {
+				any = quality(parts);
+			}
+		}
+		return (gzip >= 0) ? gzip > 0 : any > 0;
+	}
+	
+	private static double quality(String[] parts) {
+		for (int i = 1; i < parts.length; i++) {
+			String param = parts[i].trim();
+			if (param.startsWith("q=") || param.startsWith("Q=")) {
+				try {
+					return Double.parseDouble(param.substring(2).trim());
+				}
+				catch (NumberFormatException e) {
+					// Peso inválido: trata como recusa
+					return 0;
+				}
+			}
+		}
+		return 1;
+	}
 
 }
@@ -0,0 +1,57 @@
+package com.devsuperior.dscatalog.resources;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.services.ReactiveCatalogService;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Versão não bloqueante de GET /products, GET /products/{id} e GET /categories.
+ *
+ * Ao receber um Mono, o Spring MVC libera a thread do Tomcat (requisição
+ * assíncrona do Servlet 3.1) e só volta a ocupar uma para escrever o JSON,
+ * quando o resultado chega. Consultas lentas não seguram threads; o limite
+ * passa a ser r2dbc.pool.max-size.
+ */
+@RestController
+@ConditionalOnProperty(name = "r2dbc.enabled", havingValue = "true")
+@RequestMapping(value = "/reactive")
+public class ReactiveCatalogResource {
+
+	@Autowired
+	private ReactiveCatalogService service;
+
+	@GetMapping(value = "/products")
+	public Mono<Page<ProductDTO>> findAllProducts(
+			@RequestParam(value = "categoryId", defaultValue = "0") Long categoryId,
+			@RequestParam(value = "name", defaultValue = "") String name,
+			Pageable pageable
+			) {
+
+		return service.findAllPaged(categoryId, name.trim(), pageable);
+	}
+
+	@GetMapping(value = "/products/{id}")
+	public Mono<ProductDTO> findProductById(@PathVariable Long id) {
+
+		return service.findById(id);
+	}
+
+	@GetMapping(value = "/categories")
+	public Mono<Page<CategoryDTO>> findAllCategories(Pageable pageable) {
+
+		return service.findAllCategories(pageable);
+	}
+
+}
@@ -1,18 +1,28 @@
 package com.devsuperior.dscatalog.services;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
 import javax.persistence.EntityNotFoundException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.devsuperior.dscatalog.components.CategorySnapshot;
 import com.devsuperior.dscatalog.dto.CategoryDTO;
 import com.devsuperior.dscatalog.entities.Category;
 import com.devsuperior.dscatalog.repositories.CategoryRepository;
+import com.devsuperior.dscatalog.services.events.CategoryChangedEvent;
 import com.devsuperior.dscatalog.services.exceptions.DataBaseException;
 import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
 
@@ -22,22 +32,53 @@ public class CategoryService {
 	@Autowired
 	private CategoryRepository categoryRepository;
 	
-	//Anotação para envolver toda operação em uma transação
-	//A Propriedade readOnly = true é para evitar um look na base de dados, pq nesse caso somente é uma consulta.
-	@Transactional(readOnly = true)
+	@Autowired
+	private CategorySnapshot snapshot;
+	
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+	
+	// Servido da cópia em memória (CategorySnapshot), sem usar conexão do pool.
+	// Ordenações por campos que não estão no DTO continuam indo ao banco.
 	public Page<CategoryDTO> findAllPaged(Pageable pageable) {
+		
+		Comparator<CategoryDTO> comparator = comparatorFor(pageable.getSort());
+		
+		if (comparator == null) {
+			return findAllPagedFromDatabase(pageable);
+		}
+		
+		List<CategoryDTO> list = new ArrayList<>(snapshot.get().getCategories());
+		list.sort(comparator);
+		
+		if (pageable.isUnpaged()) {
+			return new PageImpl<>(copy(list), pageable, list.size());
+		}
+		
+		int from = (int) Math.min(pageable.getOffset(), list.size());
+		int to = Math.min(from + pageable.getPageSize(), list.size());
+		
+		return new PageImpl<>(copy(list.subList(from, to)), pageable, list.size());
+	}
+
+	private Page<CategoryDTO> findAllPagedFromDatabase(Pageable pageable) {
 
 		Page<Category> list = categoryRepository.findAll(pageable);
 
 		return list.map(x -> new CategoryDTO(x));
 	}
 
-	@Transactional(readOnly = true)
 	public CategoryDTO findById(Long id) {
 		
-		Category categoria = categoryRepository.findById(id).orElseThrow( () -> new ResourceNotFoundException("Entity not Found!"));
+		CategoryDTO categoria = snapshot.get().findById(id);
+		
+		if (categoria == null) {
+			throw new ResourceNotFoundException("Entity not Found!");
+		}
 		
-		return new CategoryDTO(categoria);
+		CategoryDTO dto = new CategoryDTO(categoria.getId(), categoria.getName());
+		dto.setUpdatedAt(categoria.getUpdatedAt());
+		return dto;
 	}
 
 	@Transactional
@@ -46,6 +87,7 @@ public class CategoryService {
 		Category entity = new Category();
 		entity.setName(dto.getName());
 		entity = categoryRepository.save(entity);
+		eventPublisher.publishEvent(new CategoryChangedEvent(entity.getId()));
 		
 		return new CategoryDTO(entity);
 	}
@@ -58,6 +100,7 @@ public class CategoryService {
 
 			entity.setName(dto.getName());
 			entity = categoryRepository.save(entity);
+			eventPublisher.publishEvent(new CategoryChangedEvent(entity.getId()));
 
 			return new CategoryDTO(entity);
 
@@ -70,6 +113,7 @@ public class CategoryService {
 	public void delete(Long id) {
 		try {
 			categoryRepository.deleteById(id);
+			eventPublisher.publishEvent(new CategoryChangedEvent(id));
 		}catch (EmptyResultDataAccessException e) {
 			throw new ResourceNotFoundException("Id not found "+ id);
 		}catch (DataIntegrityViolationException e) {
@@ -77,5 +121,33 @@ public class CategoryService {
 		}
 		
 	}
+	
+	private static Comparator<CategoryDTO> comparatorFor(Sort sort) {
+		
+		Comparator<CategoryDTO> result = null;
+		
+		for (Sort.Order order : sort) {
+			Comparator<CategoryDTO> next;
+			
+			if ("id".equals(order.getProperty())) {
+				next = Comparator.comparing(CategoryDTO::getId, Comparator.nullsFirst(Comparator.naturalOrder()));
+			} else if ("name".equals(order.getProperty())) {
+				next = Comparator.comparing(CategoryDTO::getName, Comparator.nullsFirst(Comparator.naturalOrder()));
+			} else {
+				return null;
+			}
+			
+			if (order.isDescending()) {
+				next = next.reversed();
+			}
+			result = (result == null) ? next : result.thenComparing(next);
+		}
+		
+		return (result == null) ? Comparator.comparing(CategoryDTO::getId) : result;
+	}
+	
+	private static List<CategoryDTO> copy(List<CategoryDTO> list) {
+		return list.stream().map(x -> new CategoryDTO(x.getId(), x.getName())).collect(Collectors.toList());
+	}
 
 }
@@ -0,0 +1,232 @@
+package com.devsuperior.dscatalog.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.devsuperior.dscatalog.components.CategorySnapshot;
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ProductBatchItemDTO;
+import com.devsuperior.dscatalog.dto.ProductBatchResultDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.entities.Category;
+import com.devsuperior.dscatalog.entities.Product;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+import com.devsuperior.dscatalog.services.exceptions.BatchTooLargeException;
+
+/**
+ * Inserção e atualização de produtos em lote (POST e PUT /products/batch).
+ *
+ * Os itens são gravados em blocos de product.batch.chunk-size, cada bloco em
+ * uma transação. Dentro do bloco o Hibernate agrupa os INSERTs/UPDATEs de
+ * tb_product e tb_product_category em lotes JDBC (hibernate.jdbc.batch_size).
+ * Um item inválido não derruba o lote: é reportado como FAILED. Se o banco
+ * recusar um bloco, os itens dele são regravados um a um para isolar o culpado.
+ */
+@Service
+public class ProductBatchService {
+
+	private static Logger logger = LoggerFactory.getLogger(ProductBatchService.class);
+
+	@Autowired
+	private ProductRepository repository;
+
+	@Autowired
+	private CategorySnapshot categorySnapshot;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private Validator validator;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Value("${product.batch.chunk-size:500}")
+	private int chunkSize;
+
+	@Value("${product.batch.max-items:5000}")
+	private int maxItems;
+
+	public ProductBatchResultDTO insertAll(List<ProductDTO> dtos) {
+		return process(dtos, false);
+	}
+
+	public ProductBatchResultDTO updateAll(List<ProductDTO> dtos) {
+		return process(dtos, true);
+	}
+
+	private ProductBatchResultDTO process(List<ProductDTO> dtos, boolean update) {
+
+		if (dtos.size() > maxItems) {
+			throw new BatchTooLargeException("Batch limited to " + maxItems + " items, received " + dtos.size());
+		}
+
+		ProductBatchItemDTO[] results = new ProductBatchItemDTO[dtos.size()];
+		CategorySnapshot.Version categories = categorySnapshot.get();
+
+		// Validação antes de abrir transação: o que falha aqui nem chega ao banco
+		List<Integer> pending = new ArrayList<>();
+		for (int i = 0; i < dtos.size(); i++) {
+			String error = validate(dtos.get(i), update, categories);
+			if (error != null) {
+				results[i] = ProductBatchItemDTO.failure(i, dtos.get(i) == null ? null : dtos.get(i).getId(), error);
+			}
+			else {
+				pending.add(i);
+			}
+		}
+
+		for (int start = 0; start < pending.size(); start += chunkSize) {
+			List<Integer> chunk = pending.subList(start, Math.min(start + chunkSize, pending.size()));
+			try {
+				store(results, transactionTemplate.execute(status -> writeChunk(dtos, chunk, update)));
+			}
+			catch (RuntimeException e) {
+				logger.warn("Product batch chunk of {} items failed, retrying one by one: {}", chunk.size(), e.getMessage());
+				for (Integer index : chunk) {
+					try {
+						store(results, transactionTemplate.execute(status -> writeChunk(dtos, List.of(index), update)));
+					}
+					catch (RuntimeException ex) {
+						results[index] = ProductBatchItemDTO.failure(index, dtos.get(index).getId(), errorMessage(ex));
+					}
+				}
+			}
+		}
+
+		return new ProductBatchResultDTO(Arrays.asList(results));
+	}
+
+	private List<ProductBatchItemDTO> writeChunk(List<ProductDTO> dtos, List<Integer> chunk, boolean update) {
+
+		Map<Long, Product> existing = update ? findExisting(dtos, chunk) : Map.of();
+
+		List<ProductBatchItemDTO> results = new ArrayList<>(chunk.size());
+		for (Integer index : chunk) {
+			ProductDTO dto = dtos.get(index);
+			Product entity;
+
+			if (update) {
+				entity = existing.get(dto.getId());
+				if (entity == null) {
+					results.add(ProductBatchItemDTO.failure(index, dto.getId(), "Id not found " + dto.getId()));
+					continue;
+				}
+				copyDtoToEntity(dto, entity);
+			}
+			else {
+				entity = new Product();
+				copyDtoToEntity(dto, entity);
+				// Com a sequence o id já vem do bloco alocado, sem ir ao banco
+				entityManager.persist(entity);
+			}
+
+			results.add(ProductBatchItemDTO.success(index, entity.getId(),
+					update ? ProductBatchItemDTO.UPDATED : ProductBatchItemDTO.CREATED));
+			eventPublisher.publishEvent(ProductChangedEvent.saved(entity.getId(), entity.getName()));
+		}
+
+		// Envia os lotes JDBC e libera o contexto de persistência para o próximo bloco.
+		// O flush pelo repositório traduz os erros do banco para DataAccessException.
+		repository.flush();
+		entityManager.clear();
+
+		return results;
+	}
+
+	private Map<Long, Product> findExisting(List<ProductDTO> dtos, List<Integer> chunk) {
+
+		Set<Long> ids = chunk.stream().map(index -> dtos.get(index).getId()).collect(Collectors.toSet());
+
+		Map<Long, Product> map = new HashMap<>();
+		for (Product entity : repository.findAllWithCategories(ids)) {
+			map.put(entity.getId(), entity);
+		}
+		return map;
+	}
+
+	private String validate(ProductDTO dto, boolean update, CategorySnapshot.Version categories) {
+
+		if (dto == null) {
+			return "Item is null";
+		}
+		if (update && dto.getId() == null) {
+			return "Id is required";
+		}
+		if (!update && dto.getId() != null) {
+			return "Id must be null on insert";
+		}
+
+		Set<ConstraintViolation<ProductDTO>> violations = validator.validate(dto);
+		if (!violations.isEmpty()) {
+			return violations.stream()
+					.map(v -> v.getPropertyPath() + ": " + v.getMessage())
+					.sorted()
+					.collect(Collectors.joining("; "));
+		}
+
+		for (CategoryDTO catDTO : dto.getCategories()) {
+			if (catDTO.getId() == null || !categories.contains(catDTO.getId())) {
+				return "Category not found " + catDTO.getId();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Mesma cópia do ProductService, mas as categorias são comparadas por id: a
+	 * coleção só é alterada quando muda, e getReference não consulta o banco.
+	 */
+	private void copyDtoToEntity(ProductDTO dto, Product entity) {
+
+		entity.setName(dto.getName());
+		entity.setDescription(dto.getDescription());
+		entity.setPrice(dto.getPrice());
+		entity.setImgUrl(dto.getImgUrl());
+		entity.setDate(dto.getDate());
+
+		Set<Long> categoryIds = new HashSet<>();
+		dto.getCategories().forEach(catDTO -> categoryIds.add(catDTO.getId()));
+
+		entity.getCategories().removeIf(category -> !categoryIds.contains(category.getId()));
+		entity.getCategories().forEach(category -> categoryIds.remove(category.getId()));
+
+		for (Long categoryId : categoryIds) {
+			entity.getCategories().add(entityManager.getReference(Category.class, categoryId));
+		}
+	}
+
+	private static void store(ProductBatchItemDTO[] results, List<ProductBatchItemDTO> items) {
+		items.forEach(item -> results[item.getIndex()] = item);
+	}
+
+	private static String errorMessage(RuntimeException e) {
+		return (e instanceof DataIntegrityViolationException) ? "Integrity violation" : "Could not save product";
+	}
+
+}
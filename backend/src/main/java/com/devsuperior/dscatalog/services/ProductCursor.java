@@ -0,0 +1,84 @@
+package com.devsuperior.dscatalog.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.devsuperior.dscatalog.services.exceptions.InvalidCursorException;
+
+/**
+ * Posição da paginação por cursor: a chave de ordenação e o id do último
+ * produto entregue. Para o cliente é um token opaco em Base64.
+ */
+public class ProductCursor {
+
+	public static final String SORT_ID = "id";
+	public static final String SORT_NAME = "name";
+
+	private static final char SEPARATOR = '\n';
+
+	private final String sort;
+	private final Long lastId;
+	private final String lastName;
+
+	private ProductCursor(String sort, Long lastId, String lastName) {
+		this.sort = sort;
+		this.lastId = lastId;
+		this.lastName = lastName;
+	}
+
+	public static ProductCursor first(String sort) {
+		return new ProductCursor(checkSort(sort), 0L, "");
+	}
+
+	public static ProductCursor after(String sort, Long lastId, String lastName) {
+		return new ProductCursor(checkSort(sort), lastId, lastName);
+	}
+
+	public static ProductCursor decode(String token, String sort) {
+		String expectedSort = checkSort(sort);
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			int first = raw.indexOf(SEPARATOR);
+			int second = raw.indexOf(SEPARATOR, first + 1);
+
+			String cursorSort = raw.substring(0, first);
+			Long lastId = Long.valueOf(raw.substring(first + 1, second));
+			String lastName = raw.substring(second + 1);
+
+			if (!cursorSort.equals(expectedSort)) {
+				throw new InvalidCursorException("Cursor was created for sort by " + cursorSort);
+			}
+			return new ProductCursor(cursorSort, lastId, lastName);
+		} catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+			throw new InvalidCursorException("Invalid cursor");
+		}
+	}
+
+	public String encode() {
+		String raw = sort + SEPARATOR + lastId + SEPARATOR + lastName;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public String getSort() {
+		return sort;
+	}
+
+	public Long getLastId() {
+		return lastId;
+	}
+
+	public String getLastName() {
+		return lastName;
+	}
+
+	private static String checkSort(String sort) {
+		if (SORT_ID.equalsIgnoreCase(sort)) {
+			return SORT_ID;
+		}
+		if (SORT_NAME.equalsIgnoreCase(sort)) {
+			return SORT_NAME;
+		}
+		throw new InvalidCursorException("Cursor pagination only supports sort by id or name");
+	}
+
+}
@@ -0,0 +1,103 @@
+package com.devsuperior.dscatalog.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.repositories.ProductRow;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Exportação do catálogo inteiro em NDJSON (GET /products/export).
+ *
+ * Uma única consulta, em uma transação somente leitura: o arquivo é uma foto
+ * consistente do catálogo, ao contrário de percorrer GET /products página a
+ * página. As linhas são lidas só para frente e cada produto é escrito assim
+ * que suas categorias terminam, então o heap usado não depende do tamanho do
+ * catálogo.
+ */
+@Service
+public class ProductExportService {
+
+	@Autowired
+	private ProductRepository repository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private final TransactionTemplate transactionTemplate;
+
+	public ProductExportService(PlatformTransactionManager transactionManager) {
+		transactionTemplate = new TransactionTemplate(transactionManager);
+		transactionTemplate.setReadOnly(true);
+	}
+
+	/**
+	 * Escreve um ProductDTO por linha, em ordem de id. Não fecha o stream.
+	 */
+	public long exportTo(OutputStream out) {
+
+		return transactionTemplate.execute(status -> {
+			try (Stream<ProductRow> rows = repository.streamAllRows();
+					JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+
+				generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+				generator.setRootValueSeparator(null);
+
+				// Sem flush por produto: quem decide quando enviar é o buffer da resposta
+				ObjectWriter writer = objectMapper.writerFor(ProductDTO.class)
+						.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+				return write(rows.iterator(), writer, generator);
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+
+	// As linhas vêm agrupadas por produto (ORDER BY obj.id)
+	private long write(Iterator<ProductRow> rows, ObjectWriter writer, JsonGenerator generator) throws IOException {
+
+		long count = 0;
+		ProductDTO current = null;
+
+		while (rows.hasNext()) {
+			ProductRow row = rows.next();
+			if (current == null || !current.getId().equals(row.getId())) {
+				if (current != null) {
+					writeLine(current, writer, generator);
+					count++;
+				}
+				current = new ProductDTO(row.getId(), row.getName(), row.getDescription(), row.getPrice(),
+						row.getImgUrl(), row.getDate());
+			}
+			if (row.getCategoryId() != null) {
+				current.getCategories().add(new CategoryDTO(row.getCategoryId(), row.getCategoryName()));
+			}
+		}
+		if (current != null) {
+			writeLine(current, writer, generator);
+			count++;
+		}
+		return count;
+	}
+
+	private void writeLine(ProductDTO dto, ObjectWriter writer, JsonGenerator generator) throws IOException {
+		writer.writeValue(generator, dto);
+		generator.writeRaw('\n');
+	}
+
+}
@@ -0,0 +1,290 @@
+package com.devsuperior.dscatalog.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import com.devsuperior.dscatalog.components.ProductImportExecutor;
+import com.devsuperior.dscatalog.components.ProductImportJobs;
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ProductBatchItemDTO;
+import com.devsuperior.dscatalog.dto.ProductBatchResultDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.dto.ProductImportJobDTO;
+import com.devsuperior.dscatalog.services.exceptions.BatchTooLargeException;
+import com.devsuperior.dscatalog.services.exceptions.ServiceUnavailableException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+/**
+ * Importação de produtos em massa a partir do corpo da requisição.
+ *
+ * A requisição só copia o corpo para um arquivo temporário e entrega a
+ * importação ao ProductImportExecutor; o cliente recebe o job RUNNING e
+ * acompanha o andamento em GET /products/import/{id}. Na thread do pool, o
+ * arquivo é lido registro a registro e gravado em blocos de
+ * product.import.chunk-size pelo ProductBatchService (mesma validação do
+ * ProductDTO, categorias conferidas no CategorySnapshot). Só um bloco fica em
+ * memória. O bloco nunca passa de product.batch.max-items, o limite do lote.
+ *
+ * O arquivo recebido vai até product.import.max-size; acima disso a cópia é
+ * interrompida e a requisição recusada com 413.
+ *
+ * NDJSON: um ProductDTO por linha, com "categories": [{"id": 1}].
+ * CSV: cabeçalho com name,description,price,imgUrl,date,categories, sendo
+ * categories os ids separados por "|".
+ */
+@Service
+public class ProductImportService {
+
+	public static final String NDJSON = "ndjson";
+	public static final String CSV = "csv";
+
+	private static Logger logger = LoggerFactory.getLogger(ProductImportService.class);
+
+	@Autowired
+	private ProductBatchService batchService;
+
+	@Autowired
+	private ProductImportJobs jobs;
+
+	@Autowired
+	private ProductImportExecutor executor;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private final CsvMapper csvMapper = new CsvMapper();
+
+	@Value("${product.import.chunk-size:500}")
+	private int chunkSize;
+
+	@Value("${product.batch.max-items:5000}")
+	private int maxItems;
+
+	@Value("${product.import.max-size:100MB}")
+	private DataSize maxSize;
+
+	public ProductImportJobDTO importProducts(InputStream body, String format) {
+
+		ProductImportJobs.Job job = jobs.start(format);
+
+		Path upload;
+		try {
+			upload = Files.createTempFile("product-import-upload-" + job.getId(), "." + format);
+		}
+		catch (IOException e) {
+			job.fail("Import aborted: " + e.getMessage());
+			return job.toDTO();
+		}
+
+		try {
+			copy(body, upload);
+		}
+		catch (BatchTooLargeException e) {
+			job.fail(e.getMessage());
+			delete(upload);
+			throw e;
+		}
+		catch (IOException e) {
+			logger.warn("Product import {} aborted while receiving the file: {}", job.getId(), e.getMessage());
+			job.fail("Import aborted: " + e.getMessage());
+			delete(upload);
+			return job.toDTO();
+		}
+
+		if (!executor.submit(() -> run(job, upload, format))) {
+			job.fail("Too many imports in progress");
+			delete(upload);
+			throw new ServiceUnavailableException("Too many imports in progress, try again later");
+		}
+
+		return job.toDTO();
+	}
+
+	// Como Files.copy, mas para de ler (e de gravar em disco) ao passar do limite
+	private void copy(InputStream body, Path upload) throws IOException {
+		long limit = maxSize.toBytes();
+		long copied = 0;
+		byte[] buffer = new byte[64 * 1024];
+		try (OutputStream out = Files.newOutputStream(upload)) {
+			for (int n; (n = body.read(buffer)) != -1; ) {
+				copied += n;
+				if (copied > limit) {
+					throw new BatchTooLargeException("Import limited to " + limit + " bytes");
+				}
+				out.write(buffer, 0, n);
+			}
+		}
+	}
+
+	private void run(ProductImportJobs.Job job, Path upload, String format) {
+
+		try (Reader reader = new InputStreamReader(Files.newInputStream(upload), StandardCharsets.UTF_8)) {
+			Chunk chunk = new Chunk(job);
+			if (CSV.equals(format)) {
+				readCsv(reader, chunk);
+			}
+			else {
+				readNdjson(reader, chunk);
+			}
+			chunk.write();
+			job.complete();
+		}
+		catch (IOException | RuntimeException e) {
+			logger.warn("Product import {} aborted: {}", job.getId(), e.getMessage());
+			job.fail("Import aborted: " + e.getMessage());
+		}
+		finally {
+			delete(upload);
+		}
+	}
+
+	private static void delete(Path upload) {
+		try {
+			Files.deleteIfExists(upload);
+		}
+		catch (IOException e) {
+			// Arquivo temporário: o sistema operacional limpa depois
+		}
+	}
+
+	private void readNdjson(Reader reader, Chunk chunk) throws IOException {
+
+		ObjectReader productReader = objectMapper.readerFor(ProductDTO.class);
+		BufferedReader lines = new BufferedReader(reader);
+
+		long record = 0;
+		String line;
+		while ((line = lines.readLine()) != null) {
+			record++;
+			if (line.isBlank()) {
+				continue;
+			}
+			try {
+				chunk.add(record, productReader.readValue(line));
+			}
+			catch (JsonProcessingException e) {
+				chunk.error(record, "Invalid JSON: " + e.getOriginalMessage());
+			}
+		}
+	}
+
+	private void readCsv(Reader reader, Chunk chunk) throws IOException {
+
+		MappingIterator<Map<String, String>> rows = csvMapper.readerFor(Map.class)
+				.with(CsvSchema.emptySchema().withHeader())
+				.readValues(reader);
+
+		long record = 0;
+		while (rows.hasNextValue()) {
+			record++;
+			try {
+				chunk.add(record, toDTO(rows.nextValue()));
+			}
+			catch (JsonProcessingException | IllegalArgumentException e) {
+				chunk.error(record, "Invalid record: " + e.getMessage());
+			}
+		}
+	}
+
+	private static ProductDTO toDTO(Map<String, String> row) {
+
+		ProductDTO dto = new ProductDTO();
+		dto.setName(row.get("name"));
+		dto.setDescription(row.get("description"));
+		dto.setImgUrl(row.get("imgUrl"));
+		dto.setPrice(parse(row, "price", Double::valueOf));
+		dto.setDate(parse(row, "date", Instant::parse));
+
+		String categories = row.get("categories");
+		if (categories != null && !categories.isBlank()) {
+			for (String id : categories.split("\\|")) {
+				dto.getCategories().add(new CategoryDTO(parse(id.trim(), "categories", Long::valueOf), null));
+			}
+		}
+		return dto;
+	}
+
+	private static <T> T parse(Map<String, String> row, String column, Function<String, T> parser) {
+		String value = row.get(column);
+		return (value == null || value.isBlank()) ? null : parse(value.trim(), column, parser);
+	}
+
+	private static <T> T parse(String value, String column, Function<String, T> parser) {
+		try {
+			return parser.apply(value);
+		}
+		catch (RuntimeException e) {
+			throw new IllegalArgumentException("invalid value for " + column + ": " + value);
+		}
+	}
+
+	/**
+	 * Registros pendentes de gravação e o número de cada um no arquivo, para
+	 * que os erros devolvidos pelo lote apontem para o registro original.
+	 */
+	private final class Chunk {
+
+		private final ProductImportJobs.Job job;
+		// Um bloco maior que o lote seria recusado inteiro pelo ProductBatchService
+		private final int size = Math.max(1, Math.min(chunkSize, maxItems));
+		private final List<ProductDTO> dtos = new ArrayList<>(size);
+		private final List<Long> records = new ArrayList<>(size);
+
+		private Chunk(ProductImportJobs.Job job) {
+			this.job = job;
+		}
+
+		private void add(long record, ProductDTO dto) {
+			dtos.add(dto);
+			records.add(record);
+			if (dtos.size() >= size) {
+				write();
+			}
+		}
+
+		private void error(long record, String message) {
+			job.error(record, message);
+		}
+
+		private void write() {
+			if (dtos.isEmpty()) {
+				return;
+			}
+			ProductBatchResultDTO result = batchService.insertAll(dtos);
+			for (ProductBatchItemDTO item : result.getItems()) {
+				if (item.isFailed()) {
+					job.error(records.get(item.getIndex()), item.getMessage());
+				}
+			}
+			job.succeeded(result.getSucceeded());
+			job.flush();
+			dtos.clear();
+			records.clear();
+		}
+	}
+
+}
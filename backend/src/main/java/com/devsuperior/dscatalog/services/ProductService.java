@@ -1,24 +1,45 @@
 package com.devsuperior.dscatalog.services;
 
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
 
 import javax.persistence.EntityNotFoundException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.devsuperior.dscatalog.components.ProductCache;
+import com.devsuperior.dscatalog.components.ProductCountCache;
+import com.devsuperior.dscatalog.components.ProductCountExecutor;
+import com.devsuperior.dscatalog.components.ProductNameIndex;
 import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ProductCursorPageDTO;
 import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.dto.ProductSummaryDTO;
+import com.devsuperior.dscatalog.dto.UnknownTotalPage;
 import com.devsuperior.dscatalog.entities.Category;
 import com.devsuperior.dscatalog.entities.Product;
 import com.devsuperior.dscatalog.repositories.CategoryRepository;
 import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.repositories.ProductRow;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
 import com.devsuperior.dscatalog.services.exceptions.DataBaseException;
 import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
 
@@ -31,27 +52,154 @@ public class ProductService {
 	@Autowired
 	private CategoryRepository categoryRepository;
 	
+	@Autowired
+	private ProductNameIndex nameIndex;
+	
+	@Autowired
+	private ProductCountCache countCache;
+	
+	@Autowired
+	private ProductCountExecutor countExecutor;
+	
+	@Autowired
+	private ProductCache productCache;
+	
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+	
 	
 	//Anotação para envolver toda operação em uma transação
 	//A Propriedade readOnly = true é para evitar um look na base de dados, pq nesse caso somente é uma consulta.
 	@Transactional(readOnly = true)
 	public Page<ProductDTO> findAllPaged(Long categoryId, String name, Pageable pageable) {
+		
+		return findPage(categoryId, name, pageable, this::findDtos);
+	}
+	
+	// Mesma listagem sem a descrição, que nem chega a ser lida do banco
+	@Transactional(readOnly = true)
+	public Page<ProductSummaryDTO> findAllSummaryPaged(Long categoryId, String name, Pageable pageable) {
+		
+		return findPage(categoryId, name, pageable, this::findSummaries);
+	}
+	
+	private <T> Page<T> findPage(Long categoryId, String name, Pageable pageable, Function<List<Long>, List<T>> loader) {
 
-		List<Category> categories = (categoryId == 0) ? null : Arrays.asList(categoryRepository.getOne(categoryId));
+		// O índice de trigramas troca o LIKE por uma busca por id quando consegue
+		Set<Long> candidates = nameIndex.search(name);
+		
+		if (candidates != null && candidates.isEmpty()) {
+			return Page.empty(pageable);
+		}
 		
-		Page<Product> page = repository.find(categories, name, pageable);
+		LongSupplier count = () -> (candidates == null)
+				? repository.countIds(categoryId, name)
+				: repository.countIdsIn(categoryId, candidates);
 		
-		repository.findProductsWithCategories(page.getContent());
+		if (countExecutor.isEnabled() && countCache.getIfPresent(categoryId, name) == null) {
+			long deadline = countExecutor.deadline();
+			Future<Long> total = countExecutor.submit(count);
+			if (total != null) {
+				return findPageWithParallelCount(categoryId, name, candidates, pageable, loader, total, deadline);
+			}
+		}
+		
+		Slice<Long> ids = findIds(categoryId, name, candidates, pageable);
+		
+		List<T> content = loader.apply(ids.getContent());
+		
+		// O COUNT só roda quando o total não pode ser deduzido da própria página e
+		// não está no cache para este filtro.
+		return PageableExecutionUtils.getPage(content, pageable, () -> countCache.get(categoryId, name, count));
+	}
+	
+	// O COUNT já foi disparado em outra conexão; a página é buscada enquanto ele roda
+	private <T> Page<T> findPageWithParallelCount(Long categoryId, String name, Set<Long> candidates,
+			Pageable pageable, Function<List<Long>, List<T>> loader, Future<Long> total, long deadline) {
+		
+		Slice<Long> ids;
+		List<T> content;
+		try {
+			ids = findIds(categoryId, name, candidates, pageable);
+			content = loader.apply(ids.getContent());
+		}
+		catch (RuntimeException e) {
+			total.cancel(true);
+			throw e;
+		}
+		
+		// Última página, ou primeira incompleta: o total sai da própria página
+		if (!ids.hasNext() && (!ids.isEmpty() || pageable.getOffset() == 0)) {
+			total.cancel(true);
+			return new PageImpl<>(content, pageable, pageable.getOffset() + ids.getNumberOfElements());
+		}
+		
+		Long counted = countExecutor.await(total, deadline);
+		if (counted == null) {
+			// Fora do prazo a página vai sem o total, e nada entra no cache
+			return new UnknownTotalPage<>(content, pageable, ids.hasNext());
+		}
+		
+		return new PageImpl<>(content, pageable, countCache.get(categoryId, name, counted::longValue));
+	}
+
+	@Transactional(readOnly = true)
+	public Slice<ProductDTO> findAllSliced(Long categoryId, String name, Pageable pageable) {
 
-		return page.map(x -> new ProductDTO(x, x.getCategories()));
+		Set<Long> candidates = nameIndex.search(name);
+		
+		if (candidates != null && candidates.isEmpty()) {
+			return new SliceImpl<>(List.of(), pageable, false);
+		}
+		
+		Slice<Long> ids = findIds(categoryId, name, candidates, pageable);
+		
+		return new SliceImpl<>(findDtos(ids.getContent()), pageable, ids.hasNext());
 	}
 
 	@Transactional(readOnly = true)
+	public ProductCursorPageDTO findAllByCursor(Long categoryId, String name, String after, String sort, int size) {
+		
+		ProductCursor cursor = (after == null || after.isEmpty()) ? ProductCursor.first(sort) : ProductCursor.decode(after, sort);
+		
+		// Busca um registro a mais só para saber se existe uma próxima página
+		Pageable limit = PageRequest.of(0, size + 1);
+		
+		List<Long> ids = ProductCursor.SORT_NAME.equals(cursor.getSort())
+				? repository.findIdsAfterName(categoryId, name, cursor.getLastName(), cursor.getLastId(), limit)
+				: repository.findIdsAfterId(categoryId, name, cursor.getLastId(), limit);
+		
+		boolean hasNext = ids.size() > size;
+		if (hasNext) {
+			ids = ids.subList(0, size);
+		}
+		
+		List<ProductDTO> content = findDtos(ids);
+		
+		String next = null;
+		if (hasNext) {
+			ProductDTO last = content.get(content.size() - 1);
+			next = ProductCursor.after(cursor.getSort(), last.getId(), last.getName()).encode();
+		}
+		
+		return new ProductCursorPageDTO(content, size, next);
+	}
+
+	// Sem @Transactional: um hit no cache não precisa de conexão com o banco
 	public ProductDTO findById(Long id) {
 		
-		Product entity = repository.findById(id).orElseThrow( () -> new ResourceNotFoundException("Entity not Found!"));
+		return productCache.get(id, this::loadById);
+	}
+	
+	private ProductDTO loadById(Long id) {
 		
-		return new ProductDTO(entity, entity.getCategories());
+		List<ProductDTO> result = findDtos(List.of(id));
+		
+		if (result.isEmpty()) {
+			throw new ResourceNotFoundException("Entity not Found!");
+		}
+		
+		return result.get(0);
 	}
 
 	@Transactional
@@ -60,6 +208,7 @@ public class ProductService {
 		Product entity = new Product();
 		copyDtoToEntity(dto, entity);
 		entity = repository.save(entity);
+		eventPublisher.publishEvent(ProductChangedEvent.saved(entity.getId(), entity.getName()));
 		
 		return new ProductDTO(entity);
 	}
@@ -72,6 +221,7 @@ public class ProductService {
 
 			copyDtoToEntity(dto, entity);
 			entity = repository.save(entity);
+			eventPublisher.publishEvent(ProductChangedEvent.saved(entity.getId(), entity.getName()));
 
 			return new ProductDTO(entity);
 
@@ -84,6 +234,7 @@ public class ProductService {
 	public void delete(Long id) {
 		try {
 			repository.deleteById(id);
+			eventPublisher.publishEvent(ProductChangedEvent.removed(id));
 		}catch (EmptyResultDataAccessException e) {
 			throw new ResourceNotFoundException("Id not found "+ id);
 		}catch (DataIntegrityViolationException e) {
@@ -92,6 +243,62 @@ public class ProductService {
 		
 	}
 	
+	private Slice<Long> findIds(Long categoryId, String name, Set<Long> candidates, Pageable pageable) {
+		return (candidates == null)
+				? repository.findIds(categoryId, name, pageable)
+				: repository.findIdsIn(categoryId, candidates, pageable);
+	}
+	
+	/**
+	 * Carrega os produtos e suas categorias em uma única consulta, direto para
+	 * DTOs e na mesma ordem dos ids recebidos.
+	 */
+	private List<ProductDTO> findDtos(List<Long> ids) {
+		if (ids.isEmpty()) {
+			return new ArrayList<>();
+		}
+		
+		Map<Long, ProductDTO> dtos = new HashMap<>();
+		for (ProductRow row : repository.findRows(ids)) {
+			ProductDTO dto = dtos.computeIfAbsent(row.getId(), id -> new ProductDTO(row.getId(), row.getName(),
+					row.getDescription(), row.getPrice(), row.getImgUrl(), row.getDate()));
+			dto.setVersion(row.getVersion());
+			if (row.getCategoryId() != null) {
+				dto.getCategories().add(new CategoryDTO(row.getCategoryId(), row.getCategoryName()));
+			}
+		}
+		
+		return inOrder(ids, dtos);
+	}
+	
+	private List<ProductSummaryDTO> findSummaries(List<Long> ids) {
+		if (ids.isEmpty()) {
+			return new ArrayList<>();
+		}
+		
+		Map<Long, ProductSummaryDTO> dtos = new HashMap<>();
+		for (ProductRow row : repository.findSummaryRows(ids)) {
+			ProductSummaryDTO dto = dtos.computeIfAbsent(row.getId(), id -> new ProductSummaryDTO(row.getId(),
+					row.getName(), row.getPrice(), row.getImgUrl(), row.getDate()));
+			if (row.getCategoryId() != null) {
+				dto.getCategories().add(new CategoryDTO(row.getCategoryId(), row.getCategoryName()));
+			}
+		}
+		
+		return inOrder(ids, dtos);
+	}
+	
+	private static <T> List<T> inOrder(List<Long> ids, Map<Long, T> dtos) {
+		List<T> result = new ArrayList<>(ids.size());
+		for (Long id : ids) {
+			T dto = dtos.get(id);
+			if (dto != null) {
+				result.add(dto);
+			}
+		}
+		return result;
+	}
+	
 	private void copyDtoToEntity(ProductDTO dto, Product entity) {
 		
 		entity.setName(dto.getName());
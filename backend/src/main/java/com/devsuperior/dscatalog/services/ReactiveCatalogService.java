@@ -0,0 +1,111 @@
+package com.devsuperior.dscatalog.services;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.repositories.ProductRow;
+import com.devsuperior.dscatalog.repositories.ReactiveCatalogRepository;
+import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Mesmas leituras do ProductService e do CategoryService, devolvendo Mono.
+ *
+ * Nada aqui bloqueia: enquanto o banco responde, nenhuma thread fica presa à
+ * requisição. Os caches em memória (ProductCache, CategorySnapshot) não são
+ * usados, cada chamada vai ao banco pelo pool R2DBC.
+ */
+@Service
+@ConditionalOnProperty(name = "r2dbc.enabled", havingValue = "true")
+public class ReactiveCatalogService {
+
+	@Autowired
+	private ReactiveCatalogRepository repository;
+
+	public Mono<Page<ProductDTO>> findAllPaged(Long categoryId, String name, Pageable pageable) {
+
+		return repository.findIds(categoryId, name, pageable)
+				.collectList()
+				.flatMap(ids -> findDtos(ids).flatMap(content -> total(categoryId, name, pageable, content.size())
+						.map(total -> new PageImpl<>(content, pageable, total))));
+	}
+
+	public Mono<ProductDTO> findById(Long id) {
+
+		return findDtos(List.of(id))
+				.flatMap(list -> list.isEmpty()
+						? Mono.error(new ResourceNotFoundException("Entity not Found!"))
+						: Mono.just(list.get(0)));
+	}
+
+	public Mono<Page<CategoryDTO>> findAllCategories(Pageable pageable) {
+
+		return repository.findCategories(pageable)
+				.map(CategoryDTO::new)
+				.collectList()
+				.zipWith(repository.countCategories())
+				.map(result -> new PageImpl<>(result.getT1(), pageable, result.getT2()));
+	}
+
+	// Como em PageableExecutionUtils.getPage: o COUNT só roda quando o total
+	// não pode ser deduzido da própria página
+	private Mono<Long> total(Long categoryId, String name, Pageable pageable, int size) {
+		if (pageable.getOffset() == 0 && size < pageable.getPageSize()) {
+			return Mono.just((long) size);
+		}
+		if (size != 0 && size < pageable.getPageSize()) {
+			return Mono.just(pageable.getOffset() + size);
+		}
+		return repository.countIds(categoryId, name);
+	}
+
+	// Produtos e categorias em uma consulta, na ordem dos ids recebidos
+	private Mono<List<ProductDTO>> findDtos(List<Long> ids) {
+		if (ids.isEmpty()) {
+			return Mono.just(new ArrayList<>());
+		}
+
+		Map<Long, ProductDTO> dtos = new LinkedHashMap<>();
+		for (Long id : ids) {
+			dtos.put(id, null);
+		}
+
+		return repository.findRows(ids)
+				.doOnNext(row -> add(dtos, row))
+				.then(Mono.fromSupplier(() -> {
+					List<ProductDTO> result = new ArrayList<>(ids.size());
+					for (ProductDTO dto : dtos.values()) {
+						if (dto != null) {
+							result.add(dto);
+						}
+					}
+					return result;
+				}));
+	}
+
+	private static void add(Map<Long, ProductDTO> dtos, ProductRow row) {
+		ProductDTO dto = dtos.get(row.getId());
+		if (dto == null) {
+			dto = new ProductDTO(row.getId(), row.getName(), row.getDescription(), row.getPrice(), row.getImgUrl(),
+					row.getDate());
+			dto.setVersion(row.getVersion());
+			dtos.put(row.getId(), dto);
+		}
+		if (row.getCategoryId() != null) {
+			dto.getCategories().add(new CategoryDTO(row.getCategoryId(), row.getCategoryName()));
+		}
+	}
+
+}
@@ -5,6 +5,7 @@ import javax.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Page;
@@ -16,14 +17,18 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.devsuperior.dscatalog.components.UserEmailFilter;
+import com.devsuperior.dscatalog.components.UserPrincipalCache;
 import com.devsuperior.dscatalog.dto.RoleDTO;
 import com.devsuperior.dscatalog.dto.UserDTO;
 import com.devsuperior.dscatalog.dto.UserInsertDTO;
+import com.devsuperior.dscatalog.dto.UserPrincipalDTO;
 import com.devsuperior.dscatalog.dto.UserUpdateDTO;
 import com.devsuperior.dscatalog.entities.Role;
 import com.devsuperior.dscatalog.entities.User;
 import com.devsuperior.dscatalog.repositories.RoleRepository;
 import com.devsuperior.dscatalog.repositories.UserRepository;
+import com.devsuperior.dscatalog.services.events.UserChangedEvent;
 import com.devsuperior.dscatalog.services.exceptions.DataBaseException;
 import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
 
@@ -41,6 +46,15 @@ public class UserService implements UserDetailsService {
 	@Autowired
 	private RoleRepository roleRepository;
 	
+	@Autowired
+	private UserPrincipalCache principalCache;
+	
+	@Autowired
+	private UserEmailFilter emailFilter;
+	
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+	
 	//Anotação para envolver toda operação em uma transação
 	//A Propriedade readOnly = true é para evitar um look na base de dados, pq nesse caso somente é uma consulta.
 	@Transactional(readOnly = true)
@@ -65,6 +79,7 @@ public class UserService implements UserDetailsService {
 		User entity = new User();
 		copyDtoToEntity(dto, entity);
 		entity.setPassword(passwordEncoder.encode(dto.getPassword()));
+		emailFilter.put(entity.getEmail());
 		entity = repository.save(entity);
 		
 		return new UserDTO(entity);
@@ -76,9 +91,12 @@ public class UserService implements UserDetailsService {
 		try {
 			// getOne não vai no banco, ele instancia um objeto monitorado pelo Jpa
 			User entity = repository.getOne(id);
+			String previousEmail = entity.getEmail();
 
 			copyDtoToEntity(dto, entity);
+			emailFilter.put(entity.getEmail());
 			entity = repository.save(entity);
+			eventPublisher.publishEvent(new UserChangedEvent(id, previousEmail, entity.getEmail()));
 
 			return new UserDTO(entity);
 
@@ -90,7 +108,10 @@ public class UserService implements UserDetailsService {
 
 	public void delete(Long id) {
 		try {
+			// O e-mail é a chave do UserPrincipalCache
+			String email = repository.findById(id).map(User::getEmail).orElse(null);
 			repository.deleteById(id);
+			eventPublisher.publishEvent(new UserChangedEvent(id, email));
 		}catch (EmptyResultDataAccessException e) {
 			throw new ResourceNotFoundException("Id not found "+ id);
 		}catch (DataIntegrityViolationException e) {
@@ -111,17 +132,28 @@ public class UserService implements UserDetailsService {
 		}
 	}
 
+	// Depois do primeiro login o usuário vem do cache, sem ir ao banco
 	@Override
 	public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+		UserPrincipalDTO principal = principalCache.get(username, this::loadPrincipal);
+		
+		if(principal == null) {
+			logger.error("User not found: {}", username);
+			throw new UsernameNotFoundException("Email not found.");
+		}
+		
+		return principal;
+	}
+	
+	private UserPrincipalDTO loadPrincipal(String username) {
 		User user = repository.findByEmail(username);
 		
 		if(user == null) {
-			logger.error("User not found: " + username);
-			throw new UsernameNotFoundException("Email not found.");
+			return null;
 		}
 		
-		logger.info("User found: " + username);
-		return user;
+		logger.debug("User found: {}", username);
+		return new UserPrincipalDTO(user);
 	}
 
 }
@@ -0,0 +1,19 @@
+package com.devsuperior.dscatalog.services.events;
+
+/**
+ * Publicado pelo CategoryService sempre que uma categoria é inserida, alterada
+ * ou removida. Os listeners rodam depois do commit da transação.
+ */
+public class CategoryChangedEvent {
+
+	private final Long id;
+
+	public CategoryChangedEvent(Long id) {
+		this.id = id;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+}
@@ -0,0 +1,39 @@
+package com.devsuperior.dscatalog.services.events;
+
+/**
+ * Publicado pelo ProductService sempre que um produto é inserido, alterado ou
+ * removido. Os listeners rodam depois do commit da transação.
+ */
+public class ProductChangedEvent {
+
+	private final Long id;
+	private final String name;
+	private final boolean removed;
+
+	public ProductChangedEvent(Long id, String name, boolean removed) {
+		this.id = id;
+		this.name = name;
+		this.removed = removed;
+	}
+
+	public static ProductChangedEvent saved(Long id, String name) {
+		return new ProductChangedEvent(id, name, false);
+	}
+
+	public static ProductChangedEvent removed(Long id) {
+		return new ProductChangedEvent(id, null, true);
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public boolean isRemoved() {
+		return removed;
+	}
+
+}
@@ -0,0 +1,33 @@
+package com.devsuperior.dscatalog.services.events;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Publicado pelo UserService quando um usuário é alterado ou removido. Os
+ * listeners rodam depois do commit da transação.
+ *
+ * emails traz os e-mails que identificavam o usuário: o anterior e o novo
+ * numa alteração, o e-mail do usuário numa remoção.
+ */
+public class UserChangedEvent {
+
+	private final Long id;
+	private final List<String> emails;
+
+	public UserChangedEvent(Long id, String... emails) {
+		this.id = id;
+		this.emails = Stream.of(emails).filter(Objects::nonNull).distinct().collect(Collectors.toUnmodifiableList());
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public List<String> getEmails() {
+		return emails;
+	}
+
+}
@@ -0,0 +1,11 @@
+package com.devsuperior.dscatalog.services.exceptions;
+
+public class BatchTooLargeException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+	
+	public BatchTooLargeException(String msg) {
+		super(msg);
+	}
+
+}
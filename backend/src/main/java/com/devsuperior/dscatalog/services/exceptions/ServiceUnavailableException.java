@@ -0,0 +1,11 @@
+package com.devsuperior.dscatalog.services.exceptions;
+
+public class ServiceUnavailableException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+	
+	public ServiceUnavailableException(String msg) {
+		super(msg);
+	}
+
+}
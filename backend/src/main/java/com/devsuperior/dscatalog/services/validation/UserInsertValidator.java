@@ -8,8 +8,8 @@ import javax.validation.ConstraintValidatorContext;
 
 import org.springframework.beans.factory.annotation.Autowired;
 
+import com.devsuperior.dscatalog.components.UserEmailFilter;
 import com.devsuperior.dscatalog.dto.UserInsertDTO;
-import com.devsuperior.dscatalog.entities.User;
 import com.devsuperior.dscatalog.repositories.UserRepository;
 import com.devsuperior.dscatalog.resources.exceptions.FieldMessage;
 
@@ -18,6 +18,9 @@ public class UserInsertValidator implements ConstraintValidator<UserInsertValid,
 	@Autowired
 	private UserRepository repository;
 	
+	@Autowired
+	private UserEmailFilter emailFilter;
+	
 	@Override
 	public void initialize(UserInsertValid ann) {
 		// Do nothing because of X and Y.
@@ -29,9 +32,8 @@ public class UserInsertValidator implements ConstraintValidator<UserInsertValid,
 		List<FieldMessage> list = new ArrayList<>();
 		
 		// Coloque aqui seus testes de validação, acrescentando objetos FieldMessage à lista
-		User user = repository.findByEmail(dto.getEmail());
-		
-		if(user != null) {
+		// O banco só é consultado quando o filtro não descarta o e-mail
+		if(emailFilter.mightContain(dto.getEmail()) && repository.existsByEmail(dto.getEmail())) {
 			list.add(new FieldMessage("email", "Email já existe"));
 		}
 		
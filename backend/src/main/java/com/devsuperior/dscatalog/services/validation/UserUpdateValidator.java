@@ -11,8 +11,8 @@ import javax.validation.ConstraintValidatorContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.servlet.HandlerMapping;
 
+import com.devsuperior.dscatalog.components.UserEmailFilter;
 import com.devsuperior.dscatalog.dto.UserUpdateDTO;
-import com.devsuperior.dscatalog.entities.User;
 import com.devsuperior.dscatalog.repositories.UserRepository;
 import com.devsuperior.dscatalog.resources.exceptions.FieldMessage;
 
@@ -24,6 +24,9 @@ public class UserUpdateValidator implements ConstraintValidator<UserUpdateValid,
 	@Autowired
 	private UserRepository repository;
 	
+	@Autowired
+	private UserEmailFilter emailFilter;
+	
 	@Override
 	public void initialize(UserUpdateValid ann) {
 		// Do nothing because of X and Y.
@@ -40,9 +43,8 @@ public class UserUpdateValidator implements ConstraintValidator<UserUpdateValid,
 		List<FieldMessage> list = new ArrayList<>();
 		
 		// Coloque aqui seus testes de validação, acrescentando objetos FieldMessage à lista
-		User user = repository.findByEmail(dto.getEmail());
-		
-		if(user != null && userId != user.getId()) {
+		// O banco só é consultado quando o filtro não descarta o e-mail
+		if(emailFilter.mightContain(dto.getEmail()) && repository.existsByEmailAndIdNot(dto.getEmail(), userId)) {
 			list.add(new FieldMessage("email", "Email já existe"));
 		}
 		
@@ -0,0 +1,5 @@
+-- Ids de produto passam de IDENTITY para a sequence tb_product_seq (blocos de 50,
+-- otimizador pooled-lo). A sequence começa depois do maior id já gravado.
+CREATE SEQUENCE IF NOT EXISTS tb_product_seq INCREMENT BY 50;
+
+SELECT setval('tb_product_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM tb_product), false);
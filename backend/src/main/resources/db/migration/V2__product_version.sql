@@ -0,0 +1,3 @@
+-- Coluna de controle otimista de Product (@Version). Produtos já gravados
+-- começam na versão 0.
+ALTER TABLE tb_product ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
@@ -0,0 +1,109 @@
+package com.devsuperior.dscatalog.components;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.devsuperior.dscatalog.services.exceptions.ServiceUnavailableException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BoundedBCryptPasswordEncoderTests {
+
+	private SimpleMeterRegistry registry;
+	private CountDownLatch release;
+	private BoundedBCryptPasswordEncoder encoder;
+
+	@BeforeEach
+	void setUp() {
+		registry = new SimpleMeterRegistry();
+		release = new CountDownLatch(1);
+	}
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		encoder.destroy();
+	}
+
+	@Test
+	void matchesShouldVerifyPasswordAndRecordHashTime() {
+
+		encoder = encoder(1, 1, Duration.ofSeconds(10));
+
+		String hash = encoder.encode("123456");
+
+		Assertions.assertTrue(encoder.matches("123456", hash));
+		Assertions.assertFalse(encoder.matches("654321", hash));
+		Assertions.assertEquals(2, registry.get("security.bcrypt.time").tag("operation", "matches").timer().count());
+	}
+
+	@Test
+	void encodeShouldThrowServiceUnavailableExceptionWhenQueueIsFull() throws Exception {
+
+		encoder = encoder(1, 1, Duration.ofSeconds(10));
+
+		// Uma senha na thread do pool e outra na fila, ambas presas até o fim do teste
+		CompletableFuture.runAsync(() -> encoder.encode(blockingPassword()));
+		CompletableFuture.runAsync(() -> encoder.encode(blockingPassword()));
+		while (registry.get("security.bcrypt.queue.size").gauge().value() < 1) {
+			Thread.sleep(5);
+		}
+
+		Assertions.assertThrows(ServiceUnavailableException.class, () -> encoder.encode("123456"));
+		Assertions.assertEquals(1, registry.get("security.bcrypt.rejected").counter().count());
+	}
+
+	@Test
+	void matchesShouldThrowServiceUnavailableExceptionWhenTimeoutExpires() {
+
+		encoder = encoder(1, 1, Duration.ofMillis(50));
+
+		Assertions.assertThrows(ServiceUnavailableException.class,
+				() -> encoder.matches(blockingPassword(), "$2a$10$eACCYoNOHEqXve8aIWT8Nu3PkMXWBaOxJ9aORUYzfMQCbVBIhZ8tG"));
+	}
+
+	private BoundedBCryptPasswordEncoder encoder(int threads, int queueCapacity, Duration timeout) {
+		BoundedBCryptPasswordEncoder encoder = new BoundedBCryptPasswordEncoder(threads, queueCapacity, timeout);
+		encoder.bindTo(registry);
+		return encoder;
+	}
+
+	// O BCrypt lê a senha com toString(): segura a thread do pool até release
+	private CharSequence blockingPassword() {
+		return new CharSequence() {
+
+			@Override
+			public String toString() {
+				try {
+					release.await();
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return "123456";
+			}
+
+			@Override
+			public int length() {
+				return toString().length();
+			}
+
+			@Override
+			public char charAt(int index) {
+				return toString().charAt(index);
+			}
+
+			@Override
+			public CharSequence subSequence(int start, int end) {
+				return toString().subSequence(start, end);
+			}
+		};
+	}
+
+}
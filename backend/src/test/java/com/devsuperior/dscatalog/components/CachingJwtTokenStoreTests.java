@@ -0,0 +1,83 @@
+package com.devsuperior.dscatalog.components;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.common.exceptions.InvalidTokenException;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+
+class CachingJwtTokenStoreTests {
+
+	private AtomicInteger decodes;
+	private JwtAccessTokenConverter converter;
+	private CachingJwtTokenStore tokenStore;
+	private String tokenValue;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		decodes = new AtomicInteger();
+		converter = new JwtAccessTokenConverter() {
+			@Override
+			protected Map<String, Object> decode(String token) {
+				decodes.incrementAndGet();
+				return super.decode(token);
+			}
+		};
+		converter.setSigningKey("MY-JWT-SECRET");
+		converter.afterPropertiesSet();
+		tokenStore = new CachingJwtTokenStore(converter, 100, Duration.ofDays(1));
+
+		OAuth2Request request = new OAuth2Request(null, "dscatalog", null, true, null, null, null, null, null);
+		OAuth2Authentication authentication = new OAuth2Authentication(request,
+				new UsernamePasswordAuthenticationToken("maria@gmail.com", null, AuthorityUtils.createAuthorityList("ROLE_ADMIN")));
+
+		DefaultOAuth2AccessToken token = new DefaultOAuth2AccessToken("token");
+		token.setExpiration(new Date(System.currentTimeMillis() + 60_000));
+		tokenValue = converter.enhance(token, authentication).getValue();
+	}
+
+	@Test
+	void readShouldVerifyTokenOnlyOnceWhenReadRepeatedly() {
+
+		for (int i = 0; i < 10; i++) {
+			tokenStore.readAccessToken(tokenValue);
+			tokenStore.readAuthentication(tokenValue);
+		}
+
+		// Uma decodificação para o token e outra para a autenticação, só no primeiro acesso
+		Assertions.assertEquals(2, decodes.get());
+	}
+
+	@Test
+	void readAuthenticationShouldReturnNewInstanceEachTime() {
+
+		OAuth2Authentication first = tokenStore.readAuthentication(tokenValue);
+		first.setDetails("request details");
+		OAuth2Authentication second = tokenStore.readAuthentication(tokenValue);
+
+		Assertions.assertNotSame(first, second);
+		Assertions.assertNull(second.getDetails());
+		Assertions.assertEquals("maria@gmail.com", second.getName());
+	}
+
+	@Test
+	void readAccessTokenShouldThrowAndNotCacheWhenSignatureIsInvalid() {
+
+		String tampered = tokenValue.substring(0, tokenValue.length() - 2) + "xx";
+
+		Assertions.assertThrows(InvalidTokenException.class, () -> tokenStore.readAccessToken(tampered));
+		Assertions.assertThrows(InvalidTokenException.class, () -> tokenStore.readAccessToken(tampered));
+		Assertions.assertEquals(2, decodes.get());
+	}
+
+}
@@ -0,0 +1,28 @@
+package com.devsuperior.dscatalog.components;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ClientSecretEncoderTests {
+
+	private final ClientSecretEncoder encoder = new ClientSecretEncoder();
+
+	@Test
+	void matchesShouldReturnTrueOnlyForSameSecret() {
+
+		String encoded = encoder.encode("dscatalog123");
+
+		Assertions.assertTrue(encoder.matches("dscatalog123", encoded));
+		Assertions.assertFalse(encoder.matches("dscatalog124", encoded));
+		Assertions.assertFalse(encoder.matches(null, encoded));
+	}
+
+	@Test
+	void encodeShouldUseKeyOfEachInstance() {
+
+		String encoded = encoder.encode("dscatalog123");
+
+		Assertions.assertFalse(new ClientSecretEncoder().matches("dscatalog123", encoded));
+	}
+
+}
@@ -0,0 +1,68 @@
+package com.devsuperior.dscatalog.components;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.devsuperior.dscatalog.dto.UserPrincipalDTO;
+import com.devsuperior.dscatalog.services.UserService;
+import com.devsuperior.dscatalog.tests.Factory;
+
+@ExtendWith(SpringExtension.class)
+class JwtTokenEnhancerTests {
+
+	@InjectMocks
+	private JwtTokenEnhancer enhancer;
+
+	@Mock
+	private UserService userService;
+
+	private UserPrincipalDTO principal;
+	private OAuth2Request request;
+
+	@BeforeEach
+	void setUp() {
+		principal = new UserPrincipalDTO(Factory.createdUser());
+		request = new OAuth2Request(null, "dscatalog", null, true, null, null, null, null, null);
+
+		Mockito.when(userService.loadUserByUsername(principal.getUsername())).thenReturn(principal);
+	}
+
+	@Test
+	void enhanceShouldUseAuthenticatedPrincipalWithoutLookup() {
+
+		OAuth2Authentication authentication = new OAuth2Authentication(request,
+				new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+		OAuth2AccessToken token = enhancer.enhance(new DefaultOAuth2AccessToken("token"), authentication);
+
+		Assertions.assertEquals(principal.getId(), token.getAdditionalInformation().get("userId"));
+		Assertions.assertEquals("Alex", token.getAdditionalInformation().get("userFirstName"));
+		Mockito.verifyNoInteractions(userService);
+	}
+
+	@Test
+	void enhanceShouldLoadUserWhenPrincipalIsOnlyTheUsername() {
+
+		OAuth2Authentication authentication = new OAuth2Authentication(request,
+				new UsernamePasswordAuthenticationToken(principal.getUsername(), null, List.of()));
+
+		OAuth2AccessToken token = enhancer.enhance(new DefaultOAuth2AccessToken("token"), authentication);
+
+		Assertions.assertEquals(principal.getId(), token.getAdditionalInformation().get("userId"));
+		Mockito.verify(userService).loadUserByUsername(principal.getUsername());
+	}
+
+}
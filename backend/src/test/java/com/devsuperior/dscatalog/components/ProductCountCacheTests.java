@@ -0,0 +1,48 @@
+package com.devsuperior.dscatalog.components;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+
+class ProductCountCacheTests {
+
+	private ProductCountCache cache;
+	private AtomicInteger loads;
+
+	@BeforeEach
+	void setUp() {
+		cache = new ProductCountCache();
+		loads = new AtomicInteger();
+	}
+
+	@Test
+	void getShouldRunLoaderOnlyOncePerFilter() {
+
+		cache.get(0L, "Gamer", () -> count(21L));
+		long result = cache.get(0L, "gamer", () -> count(21L));
+
+		Assertions.assertEquals(21L, result);
+		Assertions.assertEquals(1, loads.get());
+	}
+
+	@Test
+	void getShouldRunLoaderAgainAfterProductChanged() {
+
+		cache.get(0L, "", () -> count(25L));
+		cache.onProductChanged(ProductChangedEvent.removed(1L));
+		long result = cache.get(0L, "", () -> count(24L));
+
+		Assertions.assertEquals(24L, result);
+		Assertions.assertEquals(2, loads.get());
+	}
+
+	private long count(long value) {
+		loads.incrementAndGet();
+		return value;
+	}
+
+}
@@ -0,0 +1,77 @@
+package com.devsuperior.dscatalog.components;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManager;
+import javax.persistence.QueryTimeoutException;
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@SpringBootTest
+class ProductCountExecutorIT {
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	private ProductCountExecutor executor;
+
+	@BeforeEach
+	void setUp() {
+		executor = new ProductCountExecutor(transactionManager, dataSource, true, 1, 1, Duration.ofMillis(200));
+	}
+
+	@AfterEach
+	void tearDown() {
+		executor.destroy();
+	}
+
+	@Test
+	void countShouldRunWhenTimeoutIsUnderOneSecond() {
+
+		Future<Long> count = executor.submit(() -> count("SELECT COUNT(*) FROM tb_product"));
+
+		Assertions.assertEquals(25L, executor.await(count, System.nanoTime() + TimeUnit.SECONDS.toNanos(5)));
+	}
+
+	@Test
+	void countShouldBeCancelledInDatabaseAfterDeadline() throws Exception {
+
+		CompletableFuture<RuntimeException> failure = new CompletableFuture<>();
+		long deadline = executor.deadline();
+		Future<Long> count = executor.submit(() -> {
+			try {
+				return count("SELECT COUNT(*) FROM SYSTEM_RANGE(1, 1000000) a, SYSTEM_RANGE(1, 1000000) b");
+			}
+			catch (RuntimeException e) {
+				failure.complete(e);
+				throw e;
+			}
+		});
+
+		Assertions.assertNull(executor.await(count, deadline));
+
+		// A interrupção não para o statement; o timeout da transação, sim
+		Assertions.assertTrue(failure.get(10, TimeUnit.SECONDS) instanceof QueryTimeoutException);
+	}
+
+	private long count(String sql) {
+		return ((Number) entityManager.createNativeQuery(sql).getSingleResult()).longValue();
+	}
+
+}
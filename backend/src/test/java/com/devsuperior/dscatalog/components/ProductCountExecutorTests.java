@@ -0,0 +1,109 @@
+package com.devsuperior.dscatalog.components;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import javax.sql.DataSource;
+
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ProductCountExecutorTests {
+
+	private SimpleMeterRegistry registry;
+	private CountDownLatch release;
+	private ProductCountExecutor executor;
+
+	@BeforeEach
+	void setUp() {
+		registry = new SimpleMeterRegistry();
+		release = new CountDownLatch(1);
+		executor = new ProductCountExecutor(Mockito.mock(PlatformTransactionManager.class),
+				Mockito.mock(DataSource.class), true, 1, 1, Duration.ofMillis(200));
+		executor.bindTo(registry);
+	}
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		executor.destroy();
+	}
+
+	@Test
+	void awaitShouldReturnCountWhenItFinishesBeforeDeadline() {
+
+		Future<Long> count = executor.submit(() -> 25L);
+
+		Assertions.assertEquals(25L, executor.await(count, executor.deadline()));
+	}
+
+	@Test
+	void awaitShouldReturnNullWithoutCountingAgainWhenDeadlinePasses() {
+
+		long deadline = executor.deadline();
+		Future<Long> count = executor.submit(this::blockingCount);
+
+		Assertions.assertNull(executor.await(count, deadline));
+		Assertions.assertTrue(count.isCancelled());
+		Assertions.assertEquals(1, registry.get("product.parallel-count.timeouts").counter().count());
+	}
+
+	@Test
+	void submitShouldReturnNullWhenQueueIsFull() {
+
+		// Um COUNT na thread do pool e outro na fila, ambos presos até o fim do teste
+		executor.submit(this::blockingCount);
+		executor.submit(this::blockingCount);
+
+		Assertions.assertNull(executor.submit(() -> 25L));
+		Assertions.assertEquals(1, registry.get("product.parallel-count.rejected").counter().count());
+	}
+
+	@Test
+	void submitShouldReturnNullWhenHikariHasNoIdleConnection() throws SQLException {
+
+		HikariPoolMXBean pool = Mockito.mock(HikariPoolMXBean.class);
+		HikariDataSource dataSource = Mockito.mock(HikariDataSource.class);
+		Mockito.when(dataSource.isWrapperFor(HikariDataSource.class)).thenReturn(true);
+		Mockito.when(dataSource.unwrap(HikariDataSource.class)).thenReturn(dataSource);
+		Mockito.when(dataSource.getHikariPoolMXBean()).thenReturn(pool);
+		Mockito.when(pool.getIdleConnections()).thenReturn(0);
+
+		ProductCountExecutor busy = new ProductCountExecutor(Mockito.mock(PlatformTransactionManager.class),
+				dataSource, true, 1, 1, Duration.ofMillis(200));
+		busy.bindTo(registry);
+		try {
+			Assertions.assertNull(busy.submit(() -> 25L));
+			Assertions.assertEquals(1, registry.get("product.parallel-count.skipped").counter().count());
+
+			Mockito.when(pool.getIdleConnections()).thenReturn(1);
+			Assertions.assertNotNull(busy.submit(() -> 25L));
+		}
+		finally {
+			busy.destroy();
+		}
+	}
+
+	private long blockingCount() {
+		try {
+			release.await(10, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return 0L;
+	}
+
+}
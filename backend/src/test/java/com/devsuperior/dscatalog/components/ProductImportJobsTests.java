@@ -0,0 +1,45 @@
+package com.devsuperior.dscatalog.components;
+
+import java.nio.file.Files;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ProductImportJobsTests {
+
+	private ProductImportJobs jobs;
+
+	@BeforeEach
+	void setUp() {
+		jobs = new ProductImportJobs(1, Duration.ofHours(1));
+	}
+
+	@Test
+	void runningJobsShouldNotBeEvictedWhenMaxJobsIsExceeded() {
+
+		ProductImportJobs.Job first = jobs.start("ndjson");
+		ProductImportJobs.Job second = jobs.start("ndjson");
+		ProductImportJobs.Job third = jobs.start("csv");
+
+		Assertions.assertSame(first, jobs.find(first.getId()));
+		Assertions.assertSame(second, jobs.find(second.getId()));
+		Assertions.assertSame(third, jobs.find(third.getId()));
+		Assertions.assertTrue(Files.exists(first.getErrors()));
+		Assertions.assertEquals(3, jobs.findAll().size());
+	}
+
+	@Test
+	void finishedJobShouldStayFindable() {
+
+		ProductImportJobs.Job job = jobs.start("ndjson");
+		job.error(2, "Invalid JSON");
+		job.complete();
+
+		Assertions.assertSame(job, jobs.find(job.getId()));
+		Assertions.assertEquals(ProductImportJobs.COMPLETED, job.toDTO().getStatus());
+		Assertions.assertEquals(1, job.toDTO().getFailed());
+	}
+
+}
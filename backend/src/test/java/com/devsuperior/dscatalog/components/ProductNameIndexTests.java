@@ -0,0 +1,83 @@
+package com.devsuperior.dscatalog.components;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.devsuperior.dscatalog.repositories.ProductNameProjection;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+
+@ExtendWith(SpringExtension.class)
+class ProductNameIndexTests {
+
+	@InjectMocks
+	private ProductNameIndex index;
+
+	@Mock
+	private ProductRepository repository;
+
+	@BeforeEach
+	void setUp() {
+		List<ProductNameProjection> products = List.of(projection(1L, "PC Gamer"), projection(2L, "Macbook Pro"),
+				projection(3L, "PC Gamer Alfa"));
+
+		Mockito.when(repository.findAllNames()).thenReturn(products);
+
+		index.rebuild();
+	}
+
+	@Test
+	void searchShouldReturnIdsWhoseNameContainsTermIgnoringCase() {
+
+		Set<Long> result = index.search("gAmEr");
+
+		Assertions.assertEquals(Set.of(1L, 3L), result);
+	}
+
+	@Test
+	void searchShouldReturnEmptySetWhenNoNameMatches() {
+
+		Set<Long> result = index.search("phone");
+
+		Assertions.assertTrue(result.isEmpty());
+	}
+
+	@Test
+	void searchShouldReturnNullWhenTermIsShorterThanTrigram() {
+
+		Assertions.assertNull(index.search("pc"));
+	}
+
+	@Test
+	void putShouldReplaceOldNameOfProduct() {
+
+		index.put(2L, "Smart TV");
+
+		Assertions.assertTrue(index.search("macbook").isEmpty());
+		Assertions.assertEquals(Set.of(2L), index.search("smart"));
+	}
+
+	@Test
+	void removeShouldDropProductFromResults() {
+
+		index.remove(1L);
+
+		Assertions.assertEquals(Set.of(3L), index.search("gamer"));
+	}
+
+	private static ProductNameProjection projection(Long id, String name) {
+		ProductNameProjection p = Mockito.mock(ProductNameProjection.class);
+		Mockito.when(p.getId()).thenReturn(id);
+		Mockito.when(p.getName()).thenReturn(name);
+		return p;
+	}
+
+}
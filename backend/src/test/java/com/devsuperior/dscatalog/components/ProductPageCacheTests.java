@@ -0,0 +1,143 @@
+package com.devsuperior.dscatalog.components;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class ProductPageCacheTests {
+
+	private ProductPageCache cache;
+	private AtomicInteger loads;
+	private Pageable pageable;
+
+	@BeforeEach
+	void setUp() {
+		cache = new ProductPageCache(DataSize.ofKilobytes(2), DataSize.ofKilobytes(1), 3);
+		ReflectionTestUtils.setField(cache, "objectMapper", new ObjectMapper());
+		loads = new AtomicInteger();
+		pageable = PageRequest.of(0, 12);
+	}
+
+	@Test
+	void writeShouldServeCachedBytesWithoutCallingLoaderAgain() throws Exception {
+
+		MockHttpServletResponse first = write(1L, false);
+		MockHttpServletResponse second = write(1L, false);
+		MockHttpServletResponse gzip = write(1L, true);
+
+		Assertions.assertEquals(1, loads.get());
+		Assertions.assertEquals(first.getContentAsString(), second.getContentAsString());
+		Assertions.assertEquals("gzip", gzip.getHeader("Content-Encoding"));
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip.getContentAsByteArray()))) {
+			Assertions.assertEquals(first.getContentAsString(), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+		}
+	}
+
+	@Test
+	void writeShouldReloadWhenProductChanged() throws Exception {
+
+		write(1L, false);
+		cache.onProductChanged(ProductChangedEvent.removed(1L));
+		write(1L, false);
+
+		Assertions.assertEquals(2, loads.get());
+	}
+
+	@Test
+	void writeShouldEvictOldestSlabWhenCapacityIsReached() throws Exception {
+
+		// Cada página ocupa mais de meio slab: uma por slab, no máximo duas
+		write(1L, false);
+		write(2L, false);
+		write(3L, false);
+		write(3L, false);
+		write(2L, false);
+		write(1L, false);
+
+		Assertions.assertEquals(4, loads.get());
+	}
+
+	@Test
+	void writeShouldReuseSlabsInsteadOfAllocatingAfterInvalidation() throws Exception {
+
+		for (long i = 0; i < 50; i++) {
+			write(i, false);
+			cache.invalidateAll();
+		}
+
+		Assertions.assertEquals(DataSize.ofKilobytes(1).toBytes(), cache.directMemory());
+	}
+
+	@Test
+	void writeShouldNotReuseSlabWhileResponseIsBeingWritten() throws Exception {
+
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
+		Mockito.when(response.getOutputStream()).thenAnswer(invocation -> {
+			// Enquanto esta resposta está em andamento o cache é invalidado e reabastecido
+			cache.invalidateAll();
+			write(2L, false);
+			write(3L, false);
+			write(4L, false);
+			return new BodyOutputStream(body);
+		});
+
+		cache.write("full", 1L, pageable, false, response, () -> List.of("x".repeat(600) + 1L));
+
+		Assertions.assertEquals("[\"" + "x".repeat(600) + "1\"]", body.toString(StandardCharsets.UTF_8));
+		Assertions.assertEquals(DataSize.ofKilobytes(2).toBytes(), cache.directMemory());
+	}
+
+	private MockHttpServletResponse write(Long categoryId, boolean gzip) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		cache.write("full", categoryId, pageable, gzip, response, () -> {
+			loads.incrementAndGet();
+			return List.of("x".repeat(600) + categoryId);
+		});
+		return response;
+	}
+
+	private static final class BodyOutputStream extends ServletOutputStream {
+
+		private final ByteArrayOutputStream out;
+
+		private BodyOutputStream(ByteArrayOutputStream out) {
+			this.out = out;
+		}
+
+		@Override
+		public void write(int b) {
+			out.write(b);
+		}
+
+		@Override
+		public boolean isReady() {
+			return true;
+		}
+
+		@Override
+		public void setWriteListener(WriteListener writeListener) {
+		}
+	}
+
+}
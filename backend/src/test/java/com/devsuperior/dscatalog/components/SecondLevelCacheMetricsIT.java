@@ -0,0 +1,50 @@
+package com.devsuperior.dscatalog.components;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.devsuperior.dscatalog.repositories.CategoryRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Sem @Transactional: cada findById abre o seu próprio EntityManager, então a
+// segunda leitura só evita o banco se vier do cache de segundo nível.
+@SpringBootTest
+class SecondLevelCacheMetricsIT {
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@Test
+	void secondReadOfCategoryShouldHitSecondLevelCache() {
+
+		CacheRegionStatistics region = entityManagerFactory.unwrap(SessionFactory.class).getStatistics()
+				.getDomainDataRegionStatistics("category");
+
+		categoryRepository.findById(1L);
+		long hits = region.getHitCount();
+		categoryRepository.findById(1L);
+
+		Assertions.assertEquals(hits + 1, region.getHitCount());
+	}
+
+	@Test
+	void hitRatioGaugeShouldBeRegisteredPerRegion() {
+
+		Assertions.assertNotNull(registry.find("hibernate.cache.hit.ratio").tag("region", "category").gauge());
+		Assertions.assertNotNull(registry.find("hibernate.cache.hit.ratio").tag("region", "product-categories").gauge());
+	}
+
+}
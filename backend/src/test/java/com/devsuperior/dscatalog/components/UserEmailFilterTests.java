@@ -0,0 +1,107 @@
+package com.devsuperior.dscatalog.components;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.devsuperior.dscatalog.repositories.UserRepository;
+import com.devsuperior.dscatalog.services.events.UserChangedEvent;
+
+class UserEmailFilterTests {
+
+	private UserEmailFilter filter;
+	private List<String> registered;
+	private volatile Thread rebuildThread;
+
+	@BeforeEach
+	void setUp() {
+		registered = IntStream.range(0, 1000).mapToObj(i -> "user" + i + "@gmail.com").collect(Collectors.toCollection(ArrayList::new));
+
+		UserRepository repository = Mockito.mock(UserRepository.class);
+		Mockito.when(repository.findAllEmails()).thenAnswer(invocation -> {
+			rebuildThread = Thread.currentThread();
+			return new ArrayList<>(registered);
+		});
+
+		filter = new UserEmailFilter(1000, 0.01, 10, Duration.ofMinutes(5));
+		ReflectionTestUtils.setField(filter, "repository", repository);
+	}
+
+	@AfterEach
+	void tearDown() {
+		filter.destroy();
+	}
+
+	@Test
+	void mightContainShouldReturnTrueForRegisteredAndPutEmails() {
+
+		Assertions.assertTrue(filter.mightContain("unknown@gmail.com"));
+
+		filter.rebuild();
+		filter.put("new@gmail.com");
+
+		Assertions.assertTrue(registered.stream().allMatch(filter::mightContain));
+		Assertions.assertTrue(filter.mightContain("new@gmail.com"));
+	}
+
+	@Test
+	void mightContainShouldRejectMostUnknownEmails() {
+
+		filter.rebuild();
+
+		long falsePositives = IntStream.range(0, 10000)
+				.mapToObj(i -> "other" + i + "@gmail.com")
+				.filter(filter::mightContain)
+				.count();
+
+		// 1% esperado; margem para não depender da distribuição exata
+		Assertions.assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+	}
+
+	@Test
+	void onUserChangedShouldRebuildAndForgetRemovedEmailsWhenThresholdIsReached() throws InterruptedException {
+
+		filter.rebuild();
+		List<String> removed = new ArrayList<>(registered.subList(0, 10));
+		registered.removeAll(removed);
+
+		for (int i = 0; i < 9; i++) {
+			filter.onUserChanged(new UserChangedEvent((long) i));
+		}
+		Assertions.assertTrue(removed.stream().allMatch(filter::mightContain));
+
+		// A recarga roda em outra thread: espera ela trocar o array
+		filter.onUserChanged(new UserChangedEvent(9L));
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (removed.stream().filter(filter::mightContain).count() >= 3 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+
+		Assertions.assertTrue(removed.stream().filter(filter::mightContain).count() < 3);
+		Assertions.assertTrue(registered.stream().allMatch(filter::mightContain));
+		// Fora da thread do listener, que é a do commit
+		Assertions.assertNotSame(Thread.currentThread(), rebuildThread);
+	}
+
+	@Test
+	void rebuildShouldKeepRecentlyPutEmailsNotYetCommitted() {
+
+		filter.rebuild();
+		// Marcado pelo UserService, mas a transação ainda não gravou o usuário
+		filter.put("pending@gmail.com");
+
+		filter.rebuild();
+
+		Assertions.assertTrue(filter.mightContain("pending@gmail.com"));
+	}
+
+}
@@ -1,12 +1,18 @@
 package com.devsuperior.dscatalog.repositories;
 
+import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.dao.EmptyResultDataAccessException;
 
 import com.devsuperior.dscatalog.entities.Product;
@@ -18,6 +24,9 @@ class ProductRepositoryTests {
 	@Autowired
 	private ProductRepository repository;
 	
+	@Autowired
+	private TestEntityManager entityManager;
+	
 	long existingId;
 	long nonExistingId;
 	long countTotalProducts;
@@ -49,6 +58,52 @@ class ProductRepositoryTests {
 		// Assertions: resultado esperado
 		Assertions.assertTrue(productOpt.isEmpty());
 	}
+
+	@Test
+	void findByIdShouldLoadDescriptionOnlyWhenAccessed() {
+
+		// Act: ação desejada
+		Product product = repository.findById(existingId).get();
+
+		// Assertions: description fica fora do select até ser lida (entidade instrumentada)
+		Assertions.assertFalse(Hibernate.isPropertyInitialized(product, "description"));
+		Assertions.assertNotNull(product.getDescription());
+		Assertions.assertTrue(Hibernate.isPropertyInitialized(product, "description"));
+	}
+	
+	@Test
+	void setterShouldMarkProductDirtyWithoutSnapshotComparison() {
+
+		// Act: ação desejada
+		Product product = repository.findById(existingId).get();
+		SelfDirtinessTracker tracker = (SelfDirtinessTracker) product;
+
+		// Assertions: o próprio objeto registra os campos alterados (dirty tracking instrumentado)
+		Assertions.assertFalse(tracker.$$_hibernate_hasDirtyAttributes());
+		product.setPrice(product.getPrice() + 1.0);
+		Assertions.assertTrue(tracker.$$_hibernate_hasDirtyAttributes());
+		Assertions.assertArrayEquals(new String[] { "price" }, tracker.$$_hibernate_getDirtyAttributes());
+	}
+	
+	@Test
+	void flushShouldUpdateOnlyProductsMarkedDirty() {
+
+		// Arrange: catálogo inteiro no contexto de persistência
+		List<Product> products = repository.findAll();
+		Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+				.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		// Act: altera um produto e sincroniza
+		products.get(0).setName("Changed");
+		entityManager.flush();
+
+		// Assertions: um UPDATE só, e o rastreamento é zerado depois do flush
+		Assertions.assertEquals(countTotalProducts, products.size());
+		Assertions.assertEquals(1, statistics.getEntityUpdateCount());
+		Assertions.assertTrue(products.stream()
+				.noneMatch(p -> ((SelfDirtinessTracker) p).$$_hibernate_hasDirtyAttributes()));
+	}
 	
 	@Test
 	void saveShouldPersistWithAutoIncrementtWhenIdIsNull() {
@@ -0,0 +1,189 @@
+package com.devsuperior.dscatalog.resources;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.tests.TokenUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Sem @Transactional: a importação grava em transações próprias, por bloco.
+// Os produtos criados são apagados ao final de cada teste. Limites baixos para
+// exercitar o 413 e a divisão em blocos do tamanho do lote.
+@SpringBootTest(properties = { "product.import.max-size=1KB", "product.batch.max-items=2" })
+@AutoConfigureMockMvc
+class ProductImportResourceIT {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper mapper;
+
+	@Autowired
+	private TokenUtil tokenUtil;
+
+	@Autowired
+	private ProductRepository repository;
+
+	private String adminUsername;
+	private String adminPassword;
+	private String marker;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		adminUsername = "maria@gmail.com";
+		adminPassword = "123456";
+		marker = "Imported";
+	}
+
+	@AfterEach
+	void tearDown() {
+		repository.findIds(0L, marker, PageRequest.of(0, 100)).forEach(repository::deleteById);
+	}
+
+	@Test
+	void importShouldCreateValidRecordsAndReportErrorsWhenNdjson() throws Exception {
+
+		String accessToken = tokenUtil.obtainAccessToken(mockMvc, adminUsername, adminPassword);
+
+		String body = "{\"name\": \"Imported Phone\", \"description\": \"Good Phone\", \"price\": 800.0, \"categories\": [{\"id\": 2}]}\n"
+				+ "{\"name\": \"Imported Phone\", \n"
+				+ "{\"name\": \"TV\", \"description\": \"Good TV\", \"price\": 800.0, \"categories\": [{\"id\": 2}]}\n";
+
+		ResultActions result = mockMvc.perform(post("/products/import")
+				.header("Authorization", "Bearer " + accessToken)
+				.content(body)
+				.contentType("application/x-ndjson")
+				.accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isAccepted());
+		result.andExpect(header().string("Location", Matchers.endsWith("/products/import/" + jobId(result))));
+
+		String jobId = jobId(result);
+
+		ResultActions job = awaitJob(jobId, accessToken);
+		job.andExpect(jsonPath("$.status").value("COMPLETED"));
+		job.andExpect(jsonPath("$.processed").value(3));
+		job.andExpect(jsonPath("$.succeeded").value(1));
+		job.andExpect(jsonPath("$.failed").value(2));
+
+		mockMvc.perform(get("/products/import/{id}/errors", jobId)
+				.header("Authorization", "Bearer " + accessToken))
+				.andExpect(status().isOk())
+				.andExpect(content().string(Matchers.startsWith("record,message\n2,\"Invalid JSON")))
+				.andExpect(content().string(Matchers.containsString("\n3,\"name:")));
+	}
+
+	@Test
+	void importShouldResolveCategoryIdsWhenCsv() throws Exception {
+
+		String accessToken = tokenUtil.obtainAccessToken(mockMvc, adminUsername, adminPassword);
+
+		String body = "name,description,price,imgUrl,date,categories\n"
+				+ "Imported Notebook,\"Fast, light\",3500.0,,2021-08-16T07:00:00Z,2|3\n"
+				+ "Imported Tablet,Small,abc,,,2\n";
+
+		ResultActions result = mockMvc.perform(post("/products/import")
+				.header("Authorization", "Bearer " + accessToken)
+				.content(body)
+				.contentType("text/csv")
+				.accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isAccepted());
+		result.andExpect(jsonPath("$.format").value("csv"));
+
+		ResultActions job = awaitJob(jobId(result), accessToken);
+		job.andExpect(jsonPath("$.status").value("COMPLETED"));
+		job.andExpect(jsonPath("$.succeeded").value(1));
+		job.andExpect(jsonPath("$.failed").value(1));
+
+		mockMvc.perform(get("/products?name=Imported Notebook&categoryId=3"))
+				.andExpect(jsonPath("$.totalElements").value(1))
+				.andExpect(jsonPath("$.content[0].categories.length()").value(2));
+	}
+
+	@Test
+	void importShouldSplitChunksAtBatchLimit() throws Exception {
+
+		String accessToken = tokenUtil.obtainAccessToken(mockMvc, adminUsername, adminPassword);
+
+		String line = "{\"name\": \"Imported Phone\", \"description\": \"Good Phone\", \"price\": 800.0, \"categories\": [{\"id\": 2}]}\n";
+
+		ResultActions result = mockMvc.perform(post("/products/import")
+				.header("Authorization", "Bearer " + accessToken)
+				.content(line + line + line)
+				.contentType("application/x-ndjson")
+				.accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isAccepted());
+
+		// chunk-size 500 com max-items 2: três registros gravados em dois blocos
+		ResultActions job = awaitJob(jobId(result), accessToken);
+		job.andExpect(jsonPath("$.status").value("COMPLETED"));
+		job.andExpect(jsonPath("$.succeeded").value(3));
+		job.andExpect(jsonPath("$.failed").value(0));
+	}
+
+	@Test
+	void importShouldReturnPayloadTooLargeWhenFileExceedsMaxSize() throws Exception {
+
+		String accessToken = tokenUtil.obtainAccessToken(mockMvc, adminUsername, adminPassword);
+
+		mockMvc.perform(post("/products/import")
+				.header("Authorization", "Bearer " + accessToken)
+				.content(new byte[2048])
+				.contentType("application/x-ndjson")
+				.accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isPayloadTooLarge());
+
+		mockMvc.perform(get("/products/import")
+				.header("Authorization", "Bearer " + accessToken))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[?(@.message == 'Import limited to 1024 bytes')].status").value("FAILED"));
+	}
+
+	@Test
+	void findAllShouldReturnUnauthorizedWhenNoToken() throws Exception {
+
+		mockMvc.perform(get("/products/import")).andExpect(status().isUnauthorized());
+	}
+
+	// A importação roda em segundo plano: consulta o job até ele sair de RUNNING
+	private ResultActions awaitJob(String jobId, String accessToken) throws Exception {
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (true) {
+			ResultActions job = mockMvc.perform(get("/products/import/{id}", jobId)
+					.header("Authorization", "Bearer " + accessToken))
+					.andExpect(status().isOk());
+			String status = mapper.readTree(job.andReturn().getResponse().getContentAsString()).get("status").asText();
+			if (!"RUNNING".equals(status) || System.currentTimeMillis() > deadline) {
+				return job;
+			}
+			Thread.sleep(50);
+		}
+	}
+
+	private String jobId(ResultActions result) throws Exception {
+		JsonNode json = mapper.readTree(result.andReturn().getResponse().getContentAsString());
+		return json.get("id").asText();
+	}
+
+}
@@ -1,21 +1,37 @@
 package com.devsuperior.dscatalog.resources;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.devsuperior.dscatalog.components.CatalogVersion;
 import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
 import com.devsuperior.dscatalog.tests.Factory;
 import com.devsuperior.dscatalog.tests.TokenUtil;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -34,6 +50,9 @@ class ProductResourceIT {
 	@Autowired
 	private TokenUtil tokenUtil;
 	
+	@Autowired
+	private CatalogVersion catalogVersion;
+	
 	private Long existingId;
 	private Long nonExistingId;
 	private Long countTotalProducts;
@@ -66,6 +85,148 @@ class ProductResourceIT {
 //		result.andExpect(jsonPath("$.content[1].name").value("PC Gamer Alfa"));
 	}
 	
+	@Test
+	void findAllShouldReturnNotModifiedUntilCatalogChanges() throws Exception {
+		
+		String etag = mockMvc.perform(get("/products?page=0&size=12"))
+				.andExpect(status().isOk())
+				.andExpect(header().exists(HttpHeaders.ETAG))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		
+		mockMvc.perform(get("/products?page=0&size=12").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified())
+				.andExpect(content().string(""));
+		
+		catalogVersion.onProductChanged(ProductChangedEvent.saved(existingId, "Changed"));
+		
+		mockMvc.perform(get("/products?page=0&size=12").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, Matchers.not(etag)));
+	}
+	
+	@Test
+	void findByIdShouldReturnNotModifiedWhenETagMatches() throws Exception {
+		
+		String etag = mockMvc.perform(get("/products/{id}", existingId))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.version").doesNotExist())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		
+		mockMvc.perform(get("/products/{id}", existingId).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+		
+		mockMvc.perform(get("/products/{id}", existingId).header(HttpHeaders.IF_NONE_MATCH, "\"p1-99-0\""))
+				.andExpect(status().isOk());
+	}
+	
+	@Test
+	void findAllShouldUseETagPerContentCodingAndVaryOnNotModified() throws Exception {
+		
+		String gzipTag = mockMvc.perform(get("/products?page=0&size=12").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		String identityTag = mockMvc.perform(get("/products?page=0&size=12"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		
+		Assertions.assertNotEquals(gzipTag, identityTag);
+		
+		// O ETag do gzip não valida o corpo sem compressão
+		mockMvc.perform(get("/products?page=0&size=12").header(HttpHeaders.IF_NONE_MATCH, gzipTag))
+				.andExpect(status().isOk())
+				.andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+		
+		mockMvc.perform(get("/products?page=0&size=12").header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+						.header(HttpHeaders.IF_NONE_MATCH, gzipTag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING));
+		
+		mockMvc.perform(get("/products?view=summary&page=0&size=12").header(HttpHeaders.IF_NONE_MATCH, identityTag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING));
+	}
+	
+	@Test
+	void findAllShouldHonorGzipQualityInAcceptEncoding() throws Exception {
+		
+		mockMvc.perform(get("/products?page=0&size=12").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, deflate"))
+				.andExpect(status().isOk())
+				.andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+				.andExpect(jsonPath("$.totalElements").value(countTotalProducts));
+		
+		mockMvc.perform(get("/products?view=summary&page=0&size=12").header(HttpHeaders.ACCEPT_ENCODING, "*;q=0"))
+				.andExpect(status().isOk())
+				.andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+		
+		mockMvc.perform(get("/products?page=0&size=12").header(HttpHeaders.ACCEPT_ENCODING, "identity, *;q=0.5"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+	}
+	
+	@Test
+	void findAllShouldReturnProductsWithoutDescriptionWhenSummaryView() throws Exception {
+		
+		mockMvc.perform(get("/products?view=summary&page=0&size=12&sort=name,asc"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.totalElements").value(countTotalProducts))
+				.andExpect(jsonPath("$.content[0].name").value("Macbook Pro"))
+				.andExpect(jsonPath("$.content[0].categories").isNotEmpty())
+				.andExpect(jsonPath("$.content[0].description").doesNotExist());
+		
+		mockMvc.perform(get("/products?view=summary&name=macbook"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.totalElements").value(1))
+				.andExpect(jsonPath("$.content[0].price").value(1250.0))
+				.andExpect(jsonPath("$.content[0].description").doesNotExist());
+	}
+	
+	@Test
+	void findAllSlicedShouldReturnSliceWithoutTotalElements() throws Exception {
+		
+		ResultActions result = mockMvc.perform(get("/products/slice?page=0&size=12&sort=name,asc")
+				.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.content[0].name").value("Macbook Pro"));
+		result.andExpect(jsonPath("$.last").value(false));
+		result.andExpect(jsonPath("$.totalElements").doesNotExist());
+	}
+	
+	@Test
+	void findAllByCursorShouldReturnFirstPageAndNextCursorWhenAfterIsEmpty() throws Exception {
+		
+		ResultActions result = mockMvc.perform(get("/products?after=&size=12&sort=name")
+				.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.content.length()").value(12));
+		result.andExpect(jsonPath("$.content[0].name").value("Macbook Pro"));
+		result.andExpect(jsonPath("$.next").isNotEmpty());
+		result.andExpect(jsonPath("$.totalElements").doesNotExist());
+	}
+	
+	@Test
+	void findAllByCursorShouldWinOverSummaryViewWhenBothAreGiven() throws Exception {
+		
+		ResultActions result = mockMvc.perform(get("/products?after=&view=summary&size=12&sort=name")
+				.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.content.length()").value(12));
+		result.andExpect(jsonPath("$.next").isNotEmpty());
+		result.andExpect(jsonPath("$.totalElements").doesNotExist());
+	}
+	
+	@Test
+	void findAllByCursorShouldReturnBadRequestWhenCursorIsInvalid() throws Exception {
+		
+		ResultActions result = mockMvc.perform(get("/products?after=abc")
+				.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isBadRequest());
+	}
+	
 	@Test
 	void updateShouldReturnProductDTOWhenIdExists() throws Exception {
 		
@@ -114,4 +275,82 @@ class ProductResourceIT {
 		
 	}
 	
+	@Test
+	void insertAllShouldReturnResultPerItemWhenBatchIsPosted() throws Exception {
+		
+		String accessToken = tokenUtil.obtainAccessToken(mockMvc, adminUsername, adminPassword);
+
+		ProductDTO valid = Factory.createdProductDTO();
+		valid.setId(null);
+		ProductDTO invalid = Factory.createdProductDTO();
+		invalid.setId(null);
+		invalid.setPrice(-1.0);
+		String jsonBody = mapper.writeValueAsString(List.of(valid, invalid));
+		
+		ResultActions result = mockMvc.perform(
+				post("/products/batch")
+				.header("Authorization", "Bearer " + accessToken)
+				.content(jsonBody)
+				.contentType(MediaType.APPLICATION_JSON)
+				.accept(MediaType.APPLICATION_JSON)
+				);
+		
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.succeeded").value(1));
+		result.andExpect(jsonPath("$.failed").value(1));
+		result.andExpect(jsonPath("$.items[0].status").value("CREATED"));
+		result.andExpect(jsonPath("$.items[0].id").exists());
+		result.andExpect(jsonPath("$.items[1].status").value("FAILED"));
+		result.andExpect(jsonPath("$.items[1].index").value(1));
+	}
+	
+	@Test
+	void exportShouldStreamWholeCatalogAsNdjson() throws Exception {
+		
+		String accessToken = tokenUtil.obtainAccessToken(mockMvc, adminUsername, adminPassword);
+		
+		MvcResult started = mockMvc.perform(get("/products/export")
+				.header("Authorization", "Bearer " + accessToken))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		
+		MvcResult result = mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(header().doesNotExist("Content-Encoding"))
+				.andReturn();
+		
+		String[] lines = result.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n");
+		Assertions.assertEquals(countTotalProducts, lines.length);
+		Assertions.assertEquals(existingId, mapper.readValue(lines[0], ProductDTO.class).getId());
+		Assertions.assertFalse(mapper.readValue(lines[0], ProductDTO.class).getCategories().isEmpty());
+	}
+	
+	@Test
+	void exportShouldCompressWhenClientAcceptsGzip() throws Exception {
+		
+		String accessToken = tokenUtil.obtainAccessToken(mockMvc, adminUsername, adminPassword);
+		
+		MvcResult started = mockMvc.perform(get("/products/export")
+				.header("Authorization", "Bearer " + accessToken)
+				.header("Accept-Encoding", "gzip, deflate"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		
+		MvcResult result = mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Content-Encoding", "gzip"))
+				.andReturn();
+		
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+			String content = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+			Assertions.assertEquals(countTotalProducts, content.split("\n").length);
+		}
+	}
+	
+	@Test
+	void exportShouldReturnUnauthorizedWhenNoToken() throws Exception {
+		
+		mockMvc.perform(get("/products/export")).andExpect(status().isUnauthorized());
+	}
+	
 }
@@ -23,10 +23,12 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
 import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.entities.Product;
 import com.devsuperior.dscatalog.services.ProductService;
 import com.devsuperior.dscatalog.services.exceptions.DataBaseException;
 import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
@@ -55,6 +57,7 @@ class ProductResourceTests {
 	private Long existingId;
 	private Long nonExistingId;
 	private Long dependentId;
+	private Long conflictingId;
 	private Page<ProductDTO> page;
 	private ProductDTO productDTO;
 	private String adminUsername;
@@ -67,6 +70,7 @@ class ProductResourceTests {
 		existingId = 1234L;
 		nonExistingId = 4321L;
 		dependentId = 1111L;
+		conflictingId = 2222L;
 		adminUsername = "maria@gmail.com";
 		adminPassword = "123456";
 		
@@ -84,6 +88,7 @@ class ProductResourceTests {
 
 		when(service.update(eq(existingId), any())).thenReturn(productDTO);
 		when(service.update(eq(nonExistingId), any())).thenThrow(ResourceNotFoundException.class);
+		when(service.update(eq(conflictingId), any())).thenThrow(new ObjectOptimisticLockingFailureException(Product.class, conflictingId));
 		
 		when(service.insert(any())).thenReturn(productDTO);
 		
@@ -185,6 +190,22 @@ class ProductResourceTests {
 		
 	}
 
+	@Test
+	void updateShouldReturnConflictWhenProductWasUpdatedConcurrently() throws Exception {
+
+		String jsonBody = mapper.writeValueAsString(productDTO);
+		
+		ResultActions result = mockMvc.perform(
+				put("/products/{id}", conflictingId)
+				.header("Authorization", "Bearer " + accessToken)
+				.content(jsonBody)
+				.contentType(MediaType.APPLICATION_JSON)
+				.accept(MediaType.APPLICATION_JSON)
+				);
+		
+		result.andExpect(status().isConflict());
+	}
+
 	@Test
 	void findAllShouldReturnPage() throws Exception {
 		ResultActions result = mockMvc.perform(get("/products").accept(MediaType.APPLICATION_JSON));
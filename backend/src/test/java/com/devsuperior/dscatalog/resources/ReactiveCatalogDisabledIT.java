@@ -0,0 +1,35 @@
+package com.devsuperior.dscatalog.resources;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.servlet.MockMvc;
+
+// Implantações sem R2DBC_URL: a aplicação sobe sem o pool R2DBC e sem /reactive/**
+@SpringBootTest(properties = { "r2dbc.enabled=false", "r2dbc.url=" })
+@AutoConfigureMockMvc
+class ReactiveCatalogDisabledIT {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ApplicationContext context;
+
+	@Test
+	void contextShouldStartWithoutR2dbcPoolWhenDisabled() throws Exception {
+
+		Assertions.assertTrue(context.getBeansOfType(DatabaseClient.class).isEmpty());
+		Assertions.assertTrue(context.getBeansOfType(ReactiveCatalogResource.class).isEmpty());
+
+		mockMvc.perform(get("/products")).andExpect(status().isOk());
+	}
+
+}
@@ -0,0 +1,101 @@
+package com.devsuperior.dscatalog.resources;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Sem @Transactional: as consultas R2DBC usam conexões próprias e não veriam
+// os dados de uma transação de teste. Aqui só há leituras.
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReactiveCatalogResourceIT {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper mapper;
+
+	private Long existingId;
+	private Long nonExistingId;
+	private Long countTotalProducts;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		existingId = 3L;
+		nonExistingId = 1000L;
+		countTotalProducts = 25L;
+	}
+
+	@Test
+	void findAllProductsShouldReturnSamePageAsBlockingEndpoint() throws Exception {
+
+		JsonNode reactive = json(perform("/reactive/products?page=1&size=10&sort=price,desc&sort=id")
+				.andExpect(jsonPath("$.totalElements").value(countTotalProducts)));
+		JsonNode blocking = json(mockMvc.perform(get("/products?page=1&size=10&sort=price,desc&sort=id")));
+
+		Assertions.assertEquals(blocking.get("content"), reactive.get("content"));
+		Assertions.assertEquals(blocking.get("totalPages"), reactive.get("totalPages"));
+	}
+
+	@Test
+	void findAllProductsShouldFilterByCategoryAndName() throws Exception {
+
+		JsonNode reactive = json(perform("/reactive/products?categoryId=3&name=PC&sort=id"));
+		JsonNode blocking = json(mockMvc.perform(get("/products?categoryId=3&name=PC&sort=id")));
+
+		Assertions.assertTrue(reactive.get("totalElements").asLong() > 0);
+		Assertions.assertEquals(blocking.get("totalElements"), reactive.get("totalElements"));
+		Assertions.assertEquals(blocking.get("content"), reactive.get("content"));
+	}
+
+	@Test
+	void findProductByIdShouldReturnProductWhenIdExists() throws Exception {
+
+		perform("/reactive/products/" + existingId)
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.name").value("Macbook Pro"))
+				.andExpect(jsonPath("$.categories").isNotEmpty());
+	}
+
+	@Test
+	void findProductByIdShouldReturnNotFoundWhenIdDoesNotExist() throws Exception {
+
+		perform("/reactive/products/" + nonExistingId).andExpect(status().isNotFound());
+	}
+
+	@Test
+	void findAllCategoriesShouldReturnSortedPage() throws Exception {
+
+		perform("/reactive/categories?sort=name")
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.totalElements").value(3))
+				.andExpect(jsonPath("$.content[0].name").value("Computadores"));
+	}
+
+	private ResultActions perform(String url) throws Exception {
+		return mockMvc.perform(asyncDispatch(mockMvc.perform(get(url).accept(MediaType.APPLICATION_JSON))
+				.andExpect(request().asyncStarted())
+				.andReturn()));
+	}
+
+	private JsonNode json(ResultActions result) throws Exception {
+		return mapper.readTree(result.andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+	}
+
+}
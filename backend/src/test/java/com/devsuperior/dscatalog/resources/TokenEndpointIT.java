@@ -0,0 +1,114 @@
+package com.devsuperior.dscatalog.resources;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.json.JacksonJsonParser;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.devsuperior.dscatalog.tests.TokenUtil;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TokenEndpointIT {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private TokenUtil tokenUtil;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@Value("${security.oauth2.client.client-id}")
+	private String clientId;
+
+	@Value("${security.oauth2.client.client-secret}")
+	private String clientSecret;
+
+	@Test
+	void tokenShouldCheckOnlyUserPasswordWithBCrypt() throws Exception {
+
+		long before = bcryptMatches();
+
+		tokenUtil.obtainAccessToken(mockMvc, "maria@gmail.com", "123456");
+
+		Assertions.assertEquals(1, bcryptMatches() - before);
+	}
+
+	@Test
+	void tokenShouldReturnUnauthorizedWhenClientSecretIsWrong() throws Exception {
+
+		mockMvc.perform(post("/oauth/token")
+				.param("grant_type", "password")
+				.param("username", "maria@gmail.com")
+				.param("password", "123456")
+				.with(httpBasic(clientId, "wrong-secret")))
+				.andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	void refreshTokenShouldIssueAccessTokenWithoutCheckingPassword() throws Exception {
+
+		String refreshToken = token(mockMvc.perform(post("/oauth/token")
+				.param("grant_type", "password")
+				.param("username", "maria@gmail.com")
+				.param("password", "123456")
+				.with(httpBasic(clientId, clientSecret)))
+				.andExpect(status().isOk())
+				.andReturn()).get("refresh_token").toString();
+
+		long before = bcryptMatches();
+
+		Map<String, Object> refreshed = token(mockMvc.perform(post("/oauth/token")
+				.param("grant_type", "refresh_token")
+				.param("refresh_token", refreshToken)
+				.with(httpBasic(clientId, clientSecret)))
+				.andExpect(status().isOk())
+				.andReturn());
+
+		Assertions.assertEquals(0, bcryptMatches() - before);
+
+		mockMvc.perform(get("/products/import")
+				.header("Authorization", "Bearer " + refreshed.get("access_token")))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void refreshTokenShouldNotBeAcceptedAsAccessToken() throws Exception {
+
+		String refreshToken = token(mockMvc.perform(post("/oauth/token")
+				.param("grant_type", "password")
+				.param("username", "maria@gmail.com")
+				.param("password", "123456")
+				.with(httpBasic(clientId, clientSecret)))
+				.andReturn()).get("refresh_token").toString();
+
+		mockMvc.perform(get("/products/import")
+				.header("Authorization", "Bearer " + refreshToken))
+				.andExpect(status().isUnauthorized());
+	}
+
+	private Map<String, Object> token(MvcResult result) throws Exception {
+		return new JacksonJsonParser().parseMap(result.getResponse().getContentAsString());
+	}
+
+	private long bcryptMatches() {
+		return registry.get("security.bcrypt.time").tag("operation", "matches").timer().count();
+	}
+
+}
@@ -0,0 +1,53 @@
+package com.devsuperior.dscatalog.services;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import com.devsuperior.dscatalog.components.CategorySnapshot;
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
+
+// Sem @Transactional: as escritas precisam de commit para a cópia em memória
+// ser recarregada. Cada teste desfaz o que criou.
+@SpringBootTest
+class CategoryServiceIT {
+
+	@Autowired
+	private CategoryService service;
+
+	@Autowired
+	private CategorySnapshot snapshot;
+
+	@Test
+	void findAllPagedShouldReturnSortedPageFromSnapshot() {
+
+		Page<CategoryDTO> result = service.findAllPaged(PageRequest.of(1, 2, Sort.by("name")));
+
+		Assertions.assertEquals(3, result.getTotalElements());
+		Assertions.assertEquals(1, result.getNumberOfElements());
+		Assertions.assertEquals("Livros", result.getContent().get(0).getName());
+	}
+
+	@Test
+	void insertAndDeleteShouldPublishNewSnapshotVersion() {
+
+		long before = snapshot.get().getNumber();
+
+		CategoryDTO dto = service.insert(new CategoryDTO(null, "Games"));
+
+		Assertions.assertTrue(snapshot.get().getNumber() > before);
+		Assertions.assertEquals("Games", service.findById(dto.getId()).getName());
+
+		service.delete(dto.getId());
+
+		Assertions.assertThrows(ResourceNotFoundException.class, () -> {
+			service.findById(dto.getId());
+		});
+	}
+
+}
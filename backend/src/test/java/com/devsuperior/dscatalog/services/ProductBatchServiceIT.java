@@ -0,0 +1,106 @@
+package com.devsuperior.dscatalog.services;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ProductBatchItemDTO;
+import com.devsuperior.dscatalog.dto.ProductBatchResultDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.entities.Product;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.tests.Factory;
+
+// A inserção roda sem @Transactional: uma falha no flush precisa derrubar só a
+// transação do bloco para que os itens sejam regravados um a um. O teste apaga
+// o que criou.
+@SpringBootTest
+class ProductBatchServiceIT {
+
+	@Autowired
+	private ProductBatchService service;
+
+	@Autowired
+	private ProductRepository repository;
+
+	private Long existingId;
+	private Long nonExistingId;
+	private Long countTotalProducts;
+
+	@BeforeEach
+	void setUp() throws Exception {
+
+		existingId = 1L;
+		nonExistingId = 1000L;
+		countTotalProducts = 25L;
+	}
+
+	@Test
+	void insertAllShouldCreateValidItemsAndReportFailuresPerItem() {
+
+		ProductDTO valid = newProductDTO("https://img.com/img.png");
+
+		ProductDTO invalid = newProductDTO("https://img.com/img.png");
+		invalid.setName("TV");
+
+		// Passa na validação, mas o banco recusa (img_url tem 255 caracteres)
+		ProductDTO rejected = newProductDTO("https://img.com/" + "x".repeat(300));
+
+		ProductBatchResultDTO result = service.insertAll(List.of(valid, invalid, rejected));
+
+		try {
+			Assertions.assertEquals(1, result.getSucceeded());
+			Assertions.assertEquals(2, result.getFailed());
+
+			ProductBatchItemDTO created = result.getItems().get(0);
+			Assertions.assertEquals(ProductBatchItemDTO.CREATED, created.getStatus());
+			Assertions.assertNotNull(created.getId());
+
+			Assertions.assertEquals(ProductBatchItemDTO.FAILED, result.getItems().get(1).getStatus());
+			Assertions.assertTrue(result.getItems().get(1).getMessage().startsWith("name:"));
+			Assertions.assertEquals(ProductBatchItemDTO.FAILED, result.getItems().get(2).getStatus());
+
+			Assertions.assertEquals(countTotalProducts + 1, repository.count());
+			Assertions.assertEquals(1, repository.findAllWithCategories(List.of(created.getId())).get(0).getCategories().size());
+		}
+		finally {
+			result.getItems().stream().filter(item -> !item.isFailed())
+					.forEach(item -> repository.deleteById(item.getId()));
+		}
+	}
+
+	@Test
+	@Transactional
+	void updateAllShouldUpdateExistingItemsAndReportMissingIds() {
+
+		ProductDTO existing = Factory.createdProductDTO();
+		existing.setId(existingId);
+		existing.getCategories().add(new CategoryDTO(3L, "Computadores"));
+
+		ProductDTO missing = Factory.createdProductDTO();
+		missing.setId(nonExistingId);
+
+		ProductBatchResultDTO result = service.updateAll(List.of(existing, missing));
+
+		Assertions.assertEquals(ProductBatchItemDTO.UPDATED, result.getItems().get(0).getStatus());
+		Assertions.assertEquals(ProductBatchItemDTO.FAILED, result.getItems().get(1).getStatus());
+
+		Product entity = repository.findAllWithCategories(List.of(existingId)).get(0);
+		Assertions.assertEquals("Phone", entity.getName());
+		Assertions.assertEquals(2, entity.getCategories().size());
+	}
+
+	private ProductDTO newProductDTO(String imgUrl) {
+		ProductDTO dto = Factory.createdProductDTO();
+		dto.setId(null);
+		dto.setImgUrl(imgUrl);
+		return dto;
+	}
+
+}
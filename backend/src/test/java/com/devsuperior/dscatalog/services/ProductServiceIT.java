@@ -1,5 +1,9 @@
 package com.devsuperior.dscatalog.services;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -7,11 +11,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.devsuperior.dscatalog.dto.ProductCursorPageDTO;
 import com.devsuperior.dscatalog.dto.ProductDTO;
 import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.services.exceptions.InvalidCursorException;
 import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
 
 // A anotação @Transactional irá realizar um rollback para cada teste
@@ -91,5 +98,66 @@ class ProductServiceIT {
 		Assertions.assertEquals("PC Gamer", result.getContent().get(1).getName());
 		Assertions.assertEquals("PC Gamer Alfa", result.getContent().get(2).getName());
 	}
+	
+	@Test
+	void findAllPagedShouldReturnOnlyMatchingProductsWhenNameIsGiven() {
+
+		PageRequest pageRequest = PageRequest.of(0, 10, Sort.by("name"));
+
+		Page<ProductDTO> result = service.findAllPaged(0L, "gAmEr", pageRequest);
+
+		Assertions.assertEquals(21L, result.getTotalElements());
+		Assertions.assertEquals("PC Gamer", result.getContent().get(0).getName());
+	}
+	
+	@Test
+	void findAllByCursorShouldWalkWholeCatalogWithoutRepeatingProducts() {
+
+		List<String> names = new ArrayList<>();
+		String after = "";
+		
+		do {
+			ProductCursorPageDTO result = service.findAllByCursor(0L, "", after, "name", 10);
+			result.getContent().forEach(x -> names.add(x.getName()));
+			after = result.getNext();
+		} while (after != null);
+
+		Assertions.assertEquals(countTotalProducts, names.size());
+		Assertions.assertEquals(names.size(), new HashSet<>(names).size());
+		Assertions.assertEquals("Macbook Pro", names.get(0));
+		Assertions.assertEquals("PC Gamer", names.get(1));
+		Assertions.assertEquals("PC Gamer Alfa", names.get(2));
+	}
+	
+	@Test
+	void findAllByCursorShouldThrowInvalidCursorExceptionWhenCursorIsInvalid() {
+
+		Assertions.assertThrows(InvalidCursorException.class, () -> {
+			service.findAllByCursor(0L, "", "not-a-cursor", "id", 10);
+		});
+	}
+	
+	@Test
+	void findAllSlicedShouldReturnSliceWithNextWhenPageZeroSizeTen() {
+
+		PageRequest pageRequest = PageRequest.of(0, 10);
+
+		Slice<ProductDTO> result = service.findAllSliced(0L, "", pageRequest);
+
+		Assertions.assertEquals(10, result.getNumberOfElements());
+		Assertions.assertTrue(result.hasNext());
+	}
+	
+	@Test
+	void findAllPagedShouldReturnProductsWithCategoriesWhenCategoryIdIsGiven() {
+
+		PageRequest pageRequest = PageRequest.of(0, 10);
+
+		Page<ProductDTO> result = service.findAllPaged(1L, "", pageRequest);
+
+		Assertions.assertEquals(1L, result.getTotalElements());
+		Assertions.assertEquals("Smart TV", result.getContent().get(0).getName());
+		Assertions.assertEquals(2, result.getContent().get(0).getCategories().size());
+	}
 
 }
@@ -1,7 +1,9 @@
 package com.devsuperior.dscatalog.services;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Future;
 
 import javax.persistence.EntityNotFoundException;
 
@@ -14,19 +16,28 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import com.devsuperior.dscatalog.components.ProductCache;
+import com.devsuperior.dscatalog.components.ProductCountCache;
+import com.devsuperior.dscatalog.components.ProductCountExecutor;
+import com.devsuperior.dscatalog.components.ProductNameIndex;
 import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.dto.UnknownTotalPage;
 import com.devsuperior.dscatalog.entities.Category;
 import com.devsuperior.dscatalog.entities.Product;
 import com.devsuperior.dscatalog.repositories.CategoryRepository;
 import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.repositories.ProductRow;
 import com.devsuperior.dscatalog.services.exceptions.DataBaseException;
 import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
 import com.devsuperior.dscatalog.tests.Factory;
@@ -43,6 +54,21 @@ class ProductServiceTests {
 	@Mock
 	private CategoryRepository categoryRepository;
 
+	@Mock
+	private ProductNameIndex nameIndex;
+
+	@Mock
+	private ProductCountCache countCache;
+
+	@Mock
+	private ProductCountExecutor countExecutor;
+
+	@Spy
+	private ProductCache productCache = new ProductCache(100, Duration.ofMinutes(10));
+
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
 	private long existingId;
 	private long nonExistingId;
 	private long dependentId;
@@ -69,7 +95,13 @@ class ProductServiceTests {
 		Mockito.when(repository.findById(existingId)).thenReturn(Optional.of(product));
 		Mockito.when(repository.findById(nonExistingId)).thenReturn(Optional.empty());
 		
-		Mockito.when(repository.find(any(), any(), any() )).thenReturn(page);
+		// null: o índice não resolve o filtro e a busca segue pelo LIKE
+		Mockito.when(nameIndex.search(any())).thenReturn(null);
+		Mockito.when(repository.findIds(any(), any(), any() )).thenReturn(new SliceImpl<>(List.of(product.getId())));
+		Mockito.when(repository.findRows(any())).thenReturn(List.of(Factory.createdProductRow()));
+		Mockito.when(repository.findRows(List.of(existingId))).thenReturn(List.of(new ProductRow(existingId,
+				product.getName(), product.getDescription(), product.getPrice(), product.getImgUrl(), product.getDate(),
+				category.getId(), category.getName())));
 		
 		Mockito.when(repository.getOne(existingId)).thenReturn(product);
 		Mockito.when(repository.getOne(nonExistingId)).thenThrow(EntityNotFoundException.class);
@@ -94,7 +126,32 @@ class ProductServiceTests {
 		Assertions.assertNotNull(result);
 
 		// times() é opcional
-		Mockito.verify(repository, Mockito.times(1)).findById(existingId);
+		Mockito.verify(repository, Mockito.times(1)).findRows(List.of(existingId));
+	}
+
+	@Test
+	void findByIdShouldNotExposeCachedProductToChanges() {
+
+		// Act: quem recebe o DTO altera o objeto
+		ProductDTO first = service.findById(existingId);
+		first.setName("Changed");
+		first.getCategories().clear();
+
+		// Assertion: a próxima leitura vem do cache, intacta
+		ProductDTO second = service.findById(existingId);
+		Assertions.assertEquals(product.getName(), second.getName());
+		Assertions.assertEquals(1, second.getCategories().size());
+		Mockito.verify(repository, Mockito.times(1)).findRows(List.of(existingId));
+	}
+
+	@Test
+	void findByIdShouldHitDatabaseOnlyOnceWhenCalledTwice() {
+
+		service.findById(existingId);
+		ProductDTO result = service.findById(existingId);
+
+		Assertions.assertEquals(existingId, result.getId());
+		Mockito.verify(repository, Mockito.times(1)).findRows(List.of(existingId));
 	}
 
 	@Test
@@ -138,6 +195,70 @@ class ProductServiceTests {
 
 		// Assertion: o resultado esperado.
 		Assertions.assertNotNull(result);
+		Assertions.assertEquals("Phone", result.getContent().get(0).getName());
+		Assertions.assertEquals(1, result.getContent().get(0).getCategories().size());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void findAllPagedShouldCancelParallelCountWhenPageQueryFails() {
+
+		// Arrage: COUNT já disparado em paralelo e a consulta da página falhando
+		Pageable pageable = PageRequest.of(0, 10);
+		Future<Long> count = Mockito.mock(Future.class);
+		Mockito.when(countExecutor.isEnabled()).thenReturn(true);
+		Mockito.when(countCache.getIfPresent(any(), any())).thenReturn(null);
+		Mockito.when(countExecutor.submit(any())).thenReturn(count);
+		Mockito.when(repository.findRows(any())).thenThrow(DataIntegrityViolationException.class);
+
+		// Assertion: o erro chega a quem chamou e o COUNT é cancelado
+		Assertions.assertThrows(DataIntegrityViolationException.class, () -> {
+			service.findAllPaged(0L, "", pageable);
+		});
+		Mockito.verify(count).cancel(true);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void findAllPagedShouldInterruptParallelCountWhenTotalComesFromPage() {
+
+		// Arrage: COUNT disparado em paralelo, mas a página já cabe inteira no pageable
+		Pageable pageable = PageRequest.of(0, 10);
+		Future<Long> count = Mockito.mock(Future.class);
+		Mockito.when(countExecutor.isEnabled()).thenReturn(true);
+		Mockito.when(countCache.getIfPresent(any(), any())).thenReturn(null);
+		Mockito.when(countExecutor.submit(any())).thenReturn(count);
+
+		Page<ProductDTO> result = service.findAllPaged(0L, "", pageable);
+
+		// Assertion: o total não espera pelo COUNT, que é interrompido
+		Assertions.assertEquals(1, result.getTotalElements());
+		Mockito.verify(countExecutor, Mockito.never()).await(any(), Mockito.anyLong());
+		Mockito.verify(count).cancel(true);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void findAllPagedShouldReturnPageWithoutTotalWhenParallelCountMissesDeadline() {
+
+		// Arrage: há próxima página e o COUNT paralelo não termina no prazo
+		Pageable pageable = PageRequest.of(0, 1);
+		Future<Long> count = Mockito.mock(Future.class);
+		Mockito.when(countExecutor.isEnabled()).thenReturn(true);
+		Mockito.when(countCache.getIfPresent(any(), any())).thenReturn(null);
+		Mockito.when(countExecutor.submit(any())).thenReturn(count);
+		Mockito.when(countExecutor.await(any(), Mockito.anyLong())).thenReturn(null);
+		Mockito.when(repository.findIds(any(), any(), any())).thenReturn(new SliceImpl<>(List.of(product.getId()), pageable, true));
+
+		Page<ProductDTO> result = service.findAllPaged(0L, "", pageable);
+
+		// Assertion: sem total, sem um segundo COUNT e sem nada no cache
+		Assertions.assertTrue(result instanceof UnknownTotalPage);
+		Assertions.assertEquals(-1, result.getTotalElements());
+		Assertions.assertTrue(result.hasNext());
+		Assertions.assertEquals(1, result.getContent().size());
+		Mockito.verify(repository, Mockito.never()).countIds(any(), any());
+		Mockito.verify(countCache, Mockito.never()).get(any(), any(), any());
 	}
 
 	@Test
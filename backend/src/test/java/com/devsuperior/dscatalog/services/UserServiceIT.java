@@ -0,0 +1,60 @@
+package com.devsuperior.dscatalog.services;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import com.devsuperior.dscatalog.dto.UserDTO;
+
+// Sem @Transactional: cada chamada abre o seu próprio EntityManager, como numa requisição
+@SpringBootTest
+class UserServiceIT {
+
+	@Autowired
+	private UserService service;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+		// evictAll() do JPA não limpa as regiões de coleções
+		sessionFactory.getCache().evictAllRegions();
+		statistics = sessionFactory.getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void findAllPagedShouldLoadRolesOfWholePageInOneQuery() {
+
+		Page<UserDTO> page = service.findAllPaged(PageRequest.of(0, 10));
+
+		Assertions.assertEquals(2, page.getNumberOfElements());
+		Assertions.assertEquals(2, page.getContent().get(1).getRoles().size());
+		// Página de usuários + um SELECT ... IN para os perfis de todos eles
+		Assertions.assertEquals(2, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void findAllPagedShouldReadRolesFromSecondLevelCacheWhenCalledAgain() {
+
+		service.findAllPaged(PageRequest.of(0, 10));
+		statistics.clear();
+
+		service.findAllPaged(PageRequest.of(0, 10));
+
+		Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+}
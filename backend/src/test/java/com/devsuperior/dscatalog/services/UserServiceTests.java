@@ -0,0 +1,169 @@
+package com.devsuperior.dscatalog.services;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.devsuperior.dscatalog.components.UserEmailFilter;
+import com.devsuperior.dscatalog.components.UserPrincipalCache;
+import com.devsuperior.dscatalog.dto.UserInsertDTO;
+import com.devsuperior.dscatalog.dto.UserUpdateDTO;
+import com.devsuperior.dscatalog.entities.User;
+import com.devsuperior.dscatalog.repositories.RoleRepository;
+import com.devsuperior.dscatalog.repositories.UserRepository;
+import com.devsuperior.dscatalog.services.events.UserChangedEvent;
+import com.devsuperior.dscatalog.tests.Factory;
+
+@ExtendWith(SpringExtension.class)
+class UserServiceTests {
+
+	@InjectMocks
+	private UserService service;
+
+	@Mock
+	private UserRepository repository;
+
+	@Mock
+	private RoleRepository roleRepository;
+
+	@Mock
+	private BCryptPasswordEncoder passwordEncoder;
+
+	@Spy
+	private UserPrincipalCache principalCache = new UserPrincipalCache(100, Duration.ofMinutes(5));
+
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
+	@Mock
+	private UserEmailFilter emailFilter;
+
+	private User user;
+	private String existingEmail;
+	private String nonExistingEmail;
+
+	@BeforeEach
+	void setUp() {
+		user = Factory.createdUser();
+		existingEmail = user.getEmail();
+		nonExistingEmail = "nobody@gmail.com";
+
+		Mockito.when(repository.findByEmail(existingEmail)).thenReturn(user);
+		Mockito.when(repository.findByEmail(nonExistingEmail)).thenReturn(null);
+	}
+
+	@Test
+	void loadUserByUsernameShouldHitDatabaseOnlyOnceWhenCalledTwice() {
+
+		UserDetails first = service.loadUserByUsername(existingEmail);
+		UserDetails second = service.loadUserByUsername(existingEmail);
+
+		Assertions.assertSame(first, second);
+		Assertions.assertEquals(user.getPassword(), second.getPassword());
+		Assertions.assertEquals("ROLE_OPERATOR", second.getAuthorities().iterator().next().getAuthority());
+		Mockito.verify(repository, Mockito.times(1)).findByEmail(existingEmail);
+	}
+
+	@Test
+	void loadUserByUsernameShouldThrowUsernameNotFoundExceptionAndNotCacheWhenEmailDoesNotExist() {
+
+		Assertions.assertThrows(UsernameNotFoundException.class, () -> service.loadUserByUsername(nonExistingEmail));
+		Assertions.assertThrows(UsernameNotFoundException.class, () -> service.loadUserByUsername(nonExistingEmail));
+
+		Mockito.verify(repository, Mockito.times(2)).findByEmail(nonExistingEmail);
+	}
+
+	@Test
+	void loadUserByUsernameShouldShareAuthoritiesAmongUsersWithSameRoles() {
+
+		User other = Factory.createdUser();
+		other.setId(2L);
+		other.setEmail("bob@gmail.com");
+		Mockito.when(repository.findByEmail(other.getEmail())).thenReturn(other);
+
+		UserDetails first = service.loadUserByUsername(existingEmail);
+		UserDetails second = service.loadUserByUsername(other.getEmail());
+
+		Assertions.assertSame(first.getAuthorities(), second.getAuthorities());
+	}
+
+	@Test
+	void loadUserByUsernameShouldReloadUserWhenUserChanged() {
+
+		service.loadUserByUsername(existingEmail);
+		principalCache.onUserChanged(new UserChangedEvent(user.getId(), existingEmail));
+		service.loadUserByUsername(existingEmail);
+
+		Mockito.verify(repository, Mockito.times(2)).findByEmail(existingEmail);
+	}
+
+	@Test
+	void loadUserByUsernameShouldNotCacheUserLoadedBeforeConcurrentChange() {
+
+		// A alteração termina enquanto o login ainda está lendo o usuário antigo
+		Mockito.when(repository.findByEmail(existingEmail)).thenAnswer(invocation -> {
+			principalCache.onUserChanged(new UserChangedEvent(user.getId(), existingEmail));
+			return user;
+		}).thenReturn(user);
+
+		service.loadUserByUsername(existingEmail);
+		service.loadUserByUsername(existingEmail);
+		service.loadUserByUsername(existingEmail);
+
+		Mockito.verify(repository, Mockito.times(2)).findByEmail(existingEmail);
+	}
+
+	@Test
+	void updateShouldPublishPreviousAndNewEmails() {
+
+		UserUpdateDTO dto = new UserUpdateDTO();
+		dto.setEmail("new@gmail.com");
+		Mockito.when(repository.getOne(user.getId())).thenReturn(user);
+		Mockito.when(repository.save(Mockito.any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+		service.update(user.getId(), dto);
+
+		ArgumentCaptor<UserChangedEvent> event = ArgumentCaptor.forClass(UserChangedEvent.class);
+		Mockito.verify(eventPublisher).publishEvent(event.capture());
+		Assertions.assertEquals(List.of(existingEmail, "new@gmail.com"), event.getValue().getEmails());
+	}
+
+	@Test
+	void insertShouldPutEmailInFilterBeforeSaving() {
+
+		UserInsertDTO dto = new UserInsertDTO();
+		dto.setEmail(nonExistingEmail);
+		dto.setPassword("123456");
+		Mockito.when(repository.save(Mockito.any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+		service.insert(dto);
+
+		InOrder inOrder = Mockito.inOrder(emailFilter, repository);
+		inOrder.verify(emailFilter).put(nonExistingEmail);
+		inOrder.verify(repository).save(Mockito.any());
+	}
+
+	@Test
+	void deleteShouldPublishUserChangedEvent() {
+
+		service.delete(user.getId());
+
+		Mockito.verify(eventPublisher).publishEvent(Mockito.any(UserChangedEvent.class));
+	}
+
+}
@@ -5,6 +5,9 @@ import java.time.Instant;
 import com.devsuperior.dscatalog.dto.ProductDTO;
 import com.devsuperior.dscatalog.entities.Category;
 import com.devsuperior.dscatalog.entities.Product;
+import com.devsuperior.dscatalog.entities.Role;
+import com.devsuperior.dscatalog.entities.User;
+import com.devsuperior.dscatalog.repositories.ProductRow;
 
 public class Factory {
 	
@@ -20,8 +23,21 @@ public class Factory {
 		return new ProductDTO(product, product.getCategories());
 	}
 	
+	public static ProductRow createdProductRow() {
+		Product product = createdProduct();
+		Category category = createdCategory();
+		return new ProductRow(product.getId(), product.getName(), product.getDescription(), product.getPrice(),
+				product.getImgUrl(), product.getDate(), category.getId(), category.getName());
+	}
+	
 	public static Category createdCategory() {
 		return new Category(2L, "Electronics");
 	}
 
+	public static User createdUser() {
+		User user = new User(1L, "Alex", "Brown", "alex@gmail.com", "$2a$10$eACCYoNOHEqXve8aIWT8Nu3PkMXWBaOxJ9aORUYzfMQCbVBIhZ8tG");
+		user.getRoles().add(new Role(1L, "ROLE_OPERATOR"));
+		return user;
+	}
+
 }